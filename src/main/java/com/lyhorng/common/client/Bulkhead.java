@@ -0,0 +1,71 @@
+package com.lyhorng.common.client;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limits the number of concurrent calls to one downstream host,
+ * optionally waiting a bounded time for a free slot
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final int maxConcurrentCalls;
+    private final long maxWaitNanos;
+    private final Semaphore permits;
+    private final LongAdder rejectedCalls = new LongAdder();
+
+    public Bulkhead(String name, BulkheadConfig config) {
+        this.name = name;
+        this.maxConcurrentCalls = config.getMaxConcurrentCalls();
+        this.maxWaitNanos = config.getMaxWait().toNanos();
+        this.permits = new Semaphore(maxConcurrentCalls);
+    }
+
+    /**
+     * Try to enter the bulkhead, waiting up to maxWait for a free slot
+     *
+     * @return false if no slot became available
+     */
+    public boolean tryEnter() {
+        boolean entered;
+        if (maxWaitNanos <= 0) {
+            entered = permits.tryAcquire();
+        } else {
+            try {
+                entered = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                entered = false;
+            }
+        }
+        if (!entered) {
+            rejectedCalls.increment();
+        }
+        return entered;
+    }
+
+    /**
+     * Release the slot obtained by tryEnter
+     */
+    public void exit() {
+        permits.release();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+
+    public int getAvailableConcurrentCalls() {
+        return permits.availablePermits();
+    }
+
+    public long getRejectedCalls() {
+        return rejectedCalls.sum();
+    }
+}
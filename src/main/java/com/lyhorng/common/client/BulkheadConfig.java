@@ -0,0 +1,22 @@
+package com.lyhorng.common.client;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * Settings for a per-host Bulkhead
+ */
+@Data
+public class BulkheadConfig {
+
+    /**
+     * Maximum number of concurrent calls to the host
+     */
+    private int maxConcurrentCalls = 25;
+
+    /**
+     * Maximum time to wait for a free slot; zero rejects immediately
+     */
+    private Duration maxWait = Duration.ZERO;
+}
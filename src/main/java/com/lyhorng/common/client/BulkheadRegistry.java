@@ -0,0 +1,18 @@
+package com.lyhorng.common.client;
+
+import java.util.Map;
+
+/**
+ * Holds one Bulkhead per downstream host, created on first use
+ */
+public class BulkheadRegistry extends HostRegistry<Bulkhead, BulkheadConfig> {
+
+    public BulkheadRegistry(BulkheadConfig defaultConfig, Map<String, BulkheadConfig> hostConfigs) {
+        super(defaultConfig, hostConfigs);
+    }
+
+    @Override
+    protected Bulkhead create(String host, BulkheadConfig config) {
+        return new Bulkhead(host, config);
+    }
+}
@@ -0,0 +1,231 @@
+package com.lyhorng.common.client;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free circuit breaker for one downstream host.
+ *
+ * CLOSED: calls pass and outcomes are recorded in a count-based sliding window. When the window
+ * holds at least minimumNumberOfCalls and the failure rate or slow call rate reaches its
+ * threshold, the circuit opens.
+ * OPEN: calls are rejected until waitDurationInOpenState has passed, then the circuit goes half-open.
+ * HALF_OPEN: a limited number of probe calls pass; the circuit closes if their failure and slow
+ * call rates are below the thresholds and opens again otherwise.
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private static final int CALL = 1;
+    private static final int FAILURE = 2;
+    private static final int SLOW = 4;
+
+    private final String name;
+    private final CircuitBreakerConfig config;
+    private final long slowCallNanos;
+    private final long waitInOpenNanos;
+    private final AtomicReference<Phase> phase;
+
+    private final LongAdder notPermittedCalls = new LongAdder();
+    private final LongAdder successfulCalls = new LongAdder();
+    private final LongAdder failedCalls = new LongAdder();
+    private final LongAdder slowCalls = new LongAdder();
+
+    public CircuitBreaker(String name, CircuitBreakerConfig config) {
+        this.name = name;
+        this.config = config;
+        this.slowCallNanos = config.getSlowCallDurationThreshold().toNanos();
+        this.waitInOpenNanos = config.getWaitDurationInOpenState().toNanos();
+        this.phase = new AtomicReference<>(Phase.closed(config.getSlidingWindowSize()));
+    }
+
+    /**
+     * Try to obtain permission to execute a call
+     *
+     * @return false if the circuit is open or no half-open probe is available
+     */
+    public boolean tryAcquirePermission() {
+        Phase current = phase.get();
+        if (current.state == State.OPEN) {
+            if (System.nanoTime() - current.openedAt < waitInOpenNanos) {
+                notPermittedCalls.increment();
+                return false;
+            }
+            Phase halfOpen = Phase.halfOpen(config.getPermittedCallsInHalfOpenState());
+            if (transition(current, halfOpen)) {
+                current = halfOpen;
+            } else {
+                current = phase.get();
+            }
+        }
+        if (current.state == State.HALF_OPEN && current.permits.getAndDecrement() <= 0) {
+            notPermittedCalls.increment();
+            return false;
+        }
+        if (current.state == State.OPEN) {
+            notPermittedCalls.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Record the outcome of a permitted call
+     *
+     * @param durationNanos Time the call took
+     * @param failure Whether the call failed
+     */
+    public void onResult(long durationNanos, boolean failure) {
+        int outcome = CALL;
+        if (failure) {
+            outcome |= FAILURE;
+            failedCalls.increment();
+        } else {
+            successfulCalls.increment();
+        }
+        if (durationNanos >= slowCallNanos) {
+            outcome |= SLOW;
+            slowCalls.increment();
+        }
+
+        Phase current = phase.get();
+        if (current.state == State.OPEN) {
+            return;
+        }
+
+        current.record(outcome);
+        if (current.state == State.CLOSED) {
+            if (current.calls.get() >= config.getMinimumNumberOfCalls() && exceedsThresholds(current)) {
+                transition(current, Phase.open(System.nanoTime()));
+            }
+        } else if (current.calls.get() >= config.getPermittedCallsInHalfOpenState()) {
+            transition(current, exceedsThresholds(current)
+                    ? Phase.open(System.nanoTime())
+                    : Phase.closed(config.getSlidingWindowSize()));
+        }
+    }
+
+    /**
+     * Force the circuit back to CLOSED with an empty window
+     */
+    public void reset() {
+        phase.set(Phase.closed(config.getSlidingWindowSize()));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public State getState() {
+        return phase.get().state;
+    }
+
+    /**
+     * Failure rate (percent) of the current window or half-open probes, or -1 if too few calls
+     */
+    public float getFailureRate() {
+        Phase current = phase.get();
+        return current.calls.get() < minimumCalls(current) ? -1 : rate(current.failures.get(), current.calls.get());
+    }
+
+    /**
+     * Slow call rate (percent) of the current window or half-open probes, or -1 if too few calls
+     */
+    public float getSlowCallRate() {
+        Phase current = phase.get();
+        return current.calls.get() < minimumCalls(current) ? -1 : rate(current.slow.get(), current.calls.get());
+    }
+
+    public long getNotPermittedCalls() {
+        return notPermittedCalls.sum();
+    }
+
+    public long getSuccessfulCalls() {
+        return successfulCalls.sum();
+    }
+
+    public long getFailedCalls() {
+        return failedCalls.sum();
+    }
+
+    public long getSlowCalls() {
+        return slowCalls.sum();
+    }
+
+    private boolean exceedsThresholds(Phase current) {
+        int calls = current.calls.get();
+        return rate(current.failures.get(), calls) >= config.getFailureRateThreshold()
+                || rate(current.slow.get(), calls) >= config.getSlowCallRateThreshold();
+    }
+
+    private int minimumCalls(Phase current) {
+        return current.state == State.HALF_OPEN
+                ? config.getPermittedCallsInHalfOpenState()
+                : config.getMinimumNumberOfCalls();
+    }
+
+    private boolean transition(Phase from, Phase to) {
+        if (phase.compareAndSet(from, to)) {
+            log.warn("Circuit breaker '{}' changed state from {} to {}", name, from.state, to.state);
+            return true;
+        }
+        return false;
+    }
+
+    private static float rate(int count, int calls) {
+        return calls == 0 ? 0 : count * 100f / calls;
+    }
+
+    /**
+     * Immutable state plus the outcome counters collected while in that state
+     */
+    private static final class Phase {
+        private final State state;
+        private final long openedAt;
+        private final AtomicInteger permits;
+        private final AtomicIntegerArray window;
+        private final AtomicLong cursor = new AtomicLong();
+        private final AtomicInteger calls = new AtomicInteger();
+        private final AtomicInteger failures = new AtomicInteger();
+        private final AtomicInteger slow = new AtomicInteger();
+
+        private Phase(State state, long openedAt, int permits, int windowSize) {
+            this.state = state;
+            this.openedAt = openedAt;
+            this.permits = new AtomicInteger(permits);
+            this.window = windowSize > 0 ? new AtomicIntegerArray(windowSize) : null;
+        }
+
+        static Phase closed(int windowSize) {
+            return new Phase(State.CLOSED, 0, 0, windowSize);
+        }
+
+        static Phase open(long openedAt) {
+            return new Phase(State.OPEN, openedAt, 0, 0);
+        }
+
+        static Phase halfOpen(int permits) {
+            return new Phase(State.HALF_OPEN, 0, permits, 0);
+        }
+
+        void record(int outcome) {
+            int previous = 0;
+            if (window != null) {
+                int slot = (int) (cursor.getAndIncrement() % window.length());
+                previous = window.getAndSet(slot, outcome);
+            }
+            calls.addAndGet((outcome & CALL) - (previous & CALL));
+            failures.addAndGet(((outcome & FAILURE) - (previous & FAILURE)) / FAILURE);
+            slow.addAndGet(((outcome & SLOW) - (previous & SLOW)) / SLOW);
+        }
+    }
+}
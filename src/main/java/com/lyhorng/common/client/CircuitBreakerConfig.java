@@ -0,0 +1,47 @@
+package com.lyhorng.common.client;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * Settings for a per-host CircuitBreaker
+ */
+@Data
+public class CircuitBreakerConfig {
+
+    /**
+     * Number of most recent calls in the sliding window
+     */
+    private int slidingWindowSize = 100;
+
+    /**
+     * Minimum number of calls in the window before rates are evaluated
+     */
+    private int minimumNumberOfCalls = 20;
+
+    /**
+     * Failure rate (percent) at or above which the circuit opens
+     */
+    private float failureRateThreshold = 50;
+
+    /**
+     * Calls taking longer than this are counted as slow
+     */
+    private Duration slowCallDurationThreshold = Duration.ofSeconds(5);
+
+    /**
+     * Slow call rate (percent) at or above which the circuit opens
+     */
+    private float slowCallRateThreshold = 100;
+
+    /**
+     * Time the circuit stays open before allowing half-open probes
+     */
+    private Duration waitDurationInOpenState = Duration.ofSeconds(30);
+
+    /**
+     * Number of probe calls permitted while half-open
+     */
+    private int permittedCallsInHalfOpenState = 5;
+}
@@ -0,0 +1,48 @@
+package com.lyhorng.common.client;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import com.lyhorng.common.exception.BusinessException;
+import com.lyhorng.common.exception.ErrorCode;
+
+import java.io.IOException;
+
+/**
+ * Guards each outbound call with the circuit breaker of its target host.
+ * I/O errors and 5xx responses count as failures.
+ * Calls to an open circuit fail fast with EXTERNAL_SERVICE_UNAVAILABLE.
+ * Any exception thrown further down the chain counts as a failure, so interceptors that reject
+ * calls locally (such as ThrottlingInterceptor) must run before this one.
+ */
+public class CircuitBreakerInterceptor implements ClientHttpRequestInterceptor {
+
+    private final CircuitBreakerRegistry registry;
+
+    public CircuitBreakerInterceptor(CircuitBreakerRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        String host = request.getURI().getHost();
+        CircuitBreaker breaker = registry.forHost(host != null ? host : "unknown");
+        if (!breaker.tryAcquirePermission()) {
+            throw new BusinessException(ErrorCode.EXTERNAL_SERVICE_UNAVAILABLE,
+                    "Circuit breaker is open for host " + breaker.getName());
+        }
+
+        long start = System.nanoTime();
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            breaker.onResult(System.nanoTime() - start, response.getStatusCode().is5xxServerError());
+            return response;
+        } catch (IOException | RuntimeException e) {
+            breaker.onResult(System.nanoTime() - start, true);
+            throw e;
+        }
+    }
+}
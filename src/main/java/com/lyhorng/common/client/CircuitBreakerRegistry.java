@@ -0,0 +1,18 @@
+package com.lyhorng.common.client;
+
+import java.util.Map;
+
+/**
+ * Holds one CircuitBreaker per downstream host, created on first use
+ */
+public class CircuitBreakerRegistry extends HostRegistry<CircuitBreaker, CircuitBreakerConfig> {
+
+    public CircuitBreakerRegistry(CircuitBreakerConfig defaultConfig, Map<String, CircuitBreakerConfig> hostConfigs) {
+        super(defaultConfig, hostConfigs);
+    }
+
+    @Override
+    protected CircuitBreaker create(String host, CircuitBreakerConfig config) {
+        return new CircuitBreaker(host, config);
+    }
+}
@@ -0,0 +1,59 @@
+package com.lyhorng.common.client;
+
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.http.HttpMethod;
+
+import com.lyhorng.common.util.Deadline;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.function.BiFunction;
+
+/**
+ * HttpContext factory for HttpComponentsClientHttpRequestFactory that shortens the connect,
+ * connection request and response timeouts of a request to the remaining time of the current
+ * Deadline. Without a deadline the client's default RequestConfig applies.
+ */
+public class DeadlineHttpContextFactory implements BiFunction<HttpMethod, URI, HttpContext> {
+
+    private final RequestConfig defaults;
+    private final Duration connectTimeout;
+
+    /**
+     * @param defaults Default RequestConfig of the HttpClient
+     * @param connectTimeout Connect timeout of the connection manager
+     */
+    public DeadlineHttpContextFactory(RequestConfig defaults, Duration connectTimeout) {
+        this.defaults = defaults;
+        this.connectTimeout = connectTimeout;
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public HttpContext apply(HttpMethod method, URI uri) {
+        Deadline deadline = Deadline.current();
+        if (deadline == null) {
+            return null;
+        }
+        RequestConfig config = RequestConfig.copy(defaults)
+                .setConnectTimeout(shrink(deadline, connectTimeout))
+                .setConnectionRequestTimeout(shrink(deadline, defaults.getConnectionRequestTimeout()))
+                .setResponseTimeout(shrink(deadline, defaults.getResponseTimeout()))
+                .build();
+        HttpClientContext context = HttpClientContext.create();
+        context.setRequestConfig(config);
+        return context;
+    }
+
+    private static Timeout shrink(Deadline deadline, Timeout timeout) {
+        Duration current = timeout == null || timeout.isDisabled() ? null : Duration.ofMillis(timeout.toMilliseconds());
+        return Timeout.ofMilliseconds(deadline.shrink(current).toMillis());
+    }
+
+    private static Timeout shrink(Deadline deadline, Duration timeout) {
+        return Timeout.ofMilliseconds(deadline.shrink(timeout).toMillis());
+    }
+}
@@ -0,0 +1,42 @@
+package com.lyhorng.common.client;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+import com.lyhorng.common.util.Deadline;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * JdkClientHttpRequestFactory whose read timeout is shortened to the remaining time of the
+ * current Deadline. The connect timeout is fixed on the shared HttpClient.
+ */
+public class DeadlineJdkClientHttpRequestFactory implements ClientHttpRequestFactory {
+
+    private final HttpClient httpClient;
+    private final Duration readTimeout;
+    private final JdkClientHttpRequestFactory defaultFactory;
+
+    public DeadlineJdkClientHttpRequestFactory(HttpClient httpClient, Duration readTimeout) {
+        this.httpClient = httpClient;
+        this.readTimeout = readTimeout;
+        this.defaultFactory = new JdkClientHttpRequestFactory(httpClient);
+        this.defaultFactory.setReadTimeout(readTimeout);
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+        Deadline deadline = Deadline.current();
+        if (deadline == null) {
+            return defaultFactory.createRequest(uri, httpMethod);
+        }
+        JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(httpClient);
+        factory.setReadTimeout(deadline.shrink(readTimeout));
+        return factory.createRequest(uri, httpMethod);
+    }
+}
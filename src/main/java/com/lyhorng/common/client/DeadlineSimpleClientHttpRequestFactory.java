@@ -0,0 +1,25 @@
+package com.lyhorng.common.client;
+
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+
+import com.lyhorng.common.util.Deadline;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+
+/**
+ * SimpleClientHttpRequestFactory whose connect and read timeouts are shortened to the
+ * remaining time of the current Deadline
+ */
+public class DeadlineSimpleClientHttpRequestFactory extends SimpleClientHttpRequestFactory {
+
+    @Override
+    protected void prepareConnection(HttpURLConnection connection, String httpMethod) throws IOException {
+        super.prepareConnection(connection, httpMethod);
+        Deadline deadline = Deadline.current();
+        if (deadline != null) {
+            connection.setConnectTimeout(deadline.shrinkMillis(connection.getConnectTimeout()));
+            connection.setReadTimeout(deadline.shrinkMillis(connection.getReadTimeout()));
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.lyhorng.common.client;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * Settings for hedged requests
+ */
+@Data
+public class HedgingConfig {
+
+    /**
+     * Latency percentile of the host after which a hedge is sent
+     */
+    private double delayPercentile = 95;
+
+    /**
+     * Lower bound for the hedge delay
+     */
+    private Duration minDelay = Duration.ofMillis(10);
+
+    /**
+     * Hedge delay used until a host has minSamples recorded latencies
+     */
+    private Duration initialDelay = Duration.ofMillis(200);
+
+    /**
+     * Number of latencies needed before the percentile is used
+     */
+    private int minSamples = 50;
+
+    /**
+     * Latencies older than one to two windows are forgotten
+     */
+    private Duration window = Duration.ofMinutes(1);
+
+    /**
+     * Hedges allowed as a percentage of requests
+     */
+    private double budgetPercent = 10;
+
+    /**
+     * Maximum hedges that can be saved up for a burst
+     */
+    private int maxBudgetTokens = 20;
+}
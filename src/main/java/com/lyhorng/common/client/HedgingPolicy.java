@@ -0,0 +1,155 @@
+package com.lyhorng.common.client;
+
+import com.lyhorng.common.util.RatioBudget;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides when idempotent calls are hedged.
+ *
+ * The hedge delay of a host is the configured latency percentile of its recent calls, tracked
+ * in two rotating histograms so it follows the host's current behaviour. A global RatioBudget
+ * caps hedges at a percentage of requests, so hedging cannot double the load on a struggling
+ * downstream.
+ */
+public class HedgingPolicy {
+
+    private final HedgingConfig config;
+    private final RatioBudget budget;
+    private final ConcurrentHashMap<String, HostLatency> latencies = new ConcurrentHashMap<>();
+    private final LongAdder hedgesSent = new LongAdder();
+    private final LongAdder hedgesWon = new LongAdder();
+    private final LongAdder hedgesSaturated = new LongAdder();
+
+    public HedgingPolicy(HedgingConfig config) {
+        this.config = config;
+        this.budget = new RatioBudget(config.getBudgetPercent(), config.getMaxBudgetTokens());
+    }
+
+    /**
+     * Record a request eligible for hedging, adding to the hedge budget
+     */
+    public void onRequest() {
+        budget.deposit();
+    }
+
+    /**
+     * Time to wait for the primary attempt before sending a hedge
+     */
+    public long hedgeDelayNanos(String host) {
+        HostLatency latency = latencies.get(host);
+        LatencyHistogram histogram = latency != null ? latency.stableHistogram(config.getMinSamples()) : null;
+        if (histogram == null) {
+            return config.getInitialDelay().toNanos();
+        }
+        return Math.max(histogram.getPercentileNanos(config.getDelayPercentile()), config.getMinDelay().toNanos());
+    }
+
+    /**
+     * Record the latency of a completed attempt
+     */
+    public void recordLatency(String host, long nanos) {
+        latencies.computeIfAbsent(host, h -> new HostLatency(config.getWindow().toNanos())).record(nanos);
+    }
+
+    /**
+     * Try to take a hedge from the budget
+     */
+    public boolean tryHedge() {
+        return budget.tryWithdraw();
+    }
+
+    /**
+     * Record that a hedge taken from the budget was sent
+     */
+    public void onHedgeSent() {
+        hedgesSent.increment();
+    }
+
+    /**
+     * Record that a hedge taken from the budget was skipped because no thread was free to run it
+     */
+    public void onHedgeSaturated() {
+        hedgesSaturated.increment();
+    }
+
+    /**
+     * Record that a hedge returned before the primary attempt
+     */
+    public void onHedgeWon() {
+        hedgesWon.increment();
+    }
+
+    public long getHedgesSent() {
+        return hedgesSent.sum();
+    }
+
+    public long getHedgesWon() {
+        return hedgesWon.sum();
+    }
+
+    /**
+     * Hedges skipped because the hedging executor was saturated
+     */
+    public long getHedgesSaturated() {
+        return hedgesSaturated.sum();
+    }
+
+    /**
+     * Hedges skipped because the budget was exhausted
+     */
+    public long getHedgesRejected() {
+        return budget.getRejections();
+    }
+
+    public double getBudgetAvailable() {
+        return budget.getAvailableTokens();
+    }
+
+    /**
+     * Current and previous window of latencies for one host
+     */
+    private static final class HostLatency {
+        private final long windowNanos;
+        private volatile LatencyHistogram current = new LatencyHistogram();
+        private volatile LatencyHistogram previous;
+        private volatile long windowStart = System.nanoTime();
+
+        private HostLatency(long windowNanos) {
+            this.windowNanos = windowNanos;
+        }
+
+        void record(long nanos) {
+            rotateIfDue();
+            current.recordNanos(nanos);
+        }
+
+        /**
+         * The fuller of the two windows, or null if neither has enough samples
+         */
+        LatencyHistogram stableHistogram(int minSamples) {
+            rotateIfDue();
+            LatencyHistogram prev = previous;
+            LatencyHistogram curr = current;
+            if (curr.getCount() >= minSamples) {
+                return curr;
+            }
+            return prev != null && prev.getCount() >= minSamples ? prev : null;
+        }
+
+        private void rotateIfDue() {
+            long start = windowStart;
+            if (System.nanoTime() - start < windowNanos) {
+                return;
+            }
+            synchronized (this) {
+                if (windowStart == start) {
+                    previous = current;
+                    current = new LatencyHistogram();
+                    windowStart = System.nanoTime();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.lyhorng.common.client;
+
+import com.lyhorng.common.util.KeyedRegistry;
+
+import java.util.Map;
+
+/**
+ * Holds one component per downstream host, created on first use from per-host or default settings
+ *
+ * @param <T> Component type
+ * @param <C> Settings type
+ */
+public abstract class HostRegistry<T, C> extends KeyedRegistry<T, C> {
+
+    /**
+     * @param defaultConfig Settings for hosts without specific settings
+     * @param hostConfigs Settings per host name
+     */
+    protected HostRegistry(C defaultConfig, Map<String, C> hostConfigs) {
+        super(defaultConfig, hostConfigs);
+    }
+
+    public T forHost(String host) {
+        return get(host);
+    }
+}
@@ -0,0 +1,142 @@
+package com.lyhorng.common.client;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free, allocation-free latency histogram with log-linear buckets (HDR style).
+ *
+ * Values are recorded in microseconds. Each power-of-two range is split into 16 linear
+ * sub-buckets, so percentiles are accurate to about 6% up to roughly 12 days.
+ * Recording is a few arithmetic operations and one atomic increment.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+    private static final long MAX_MICROS = (1L << (MAX_EXPONENT + 1)) - 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalMicros = new LongAdder();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    /**
+     * Record a duration in nanoseconds
+     */
+    public void recordNanos(long nanos) {
+        long micros = Math.min(Math.max(nanos / 1000, 0), MAX_MICROS);
+        counts.incrementAndGet(bucketIndex(micros));
+        totalCount.increment();
+        totalMicros.add(micros);
+        long max = maxMicros.get();
+        while (micros > max && !maxMicros.compareAndSet(max, micros)) {
+            max = maxMicros.get();
+        }
+    }
+
+    public long getCount() {
+        return totalCount.sum();
+    }
+
+    /**
+     * Mean duration in the given unit
+     */
+    public double getMean(TimeUnit unit) {
+        long count = totalCount.sum();
+        return count == 0 ? 0 : toUnit(totalMicros.sum(), unit) / count;
+    }
+
+    /**
+     * Maximum duration in the given unit
+     */
+    public double getMax(TimeUnit unit) {
+        return toUnit(maxMicros.get(), unit);
+    }
+
+    /**
+     * Duration at the given percentile (0-100) in the given unit, or 0 if nothing was recorded.
+     * Reports the upper bound of the bucket holding the percentile.
+     */
+    public double getPercentile(double percentile, TimeUnit unit) {
+        return toUnit(percentileMicros(this, null, percentile), unit);
+    }
+
+    /**
+     * Duration at the given percentile (0-100) in nanoseconds, or 0 if nothing was recorded
+     */
+    public long getPercentileNanos(double percentile) {
+        return percentileMicros(this, null, percentile) * 1000;
+    }
+
+    /**
+     * Percentile over the values of two histograms, as if they were added together,
+     * read in place without copying either
+     */
+    static double getPercentile(LatencyHistogram first, LatencyHistogram second, double percentile, TimeUnit unit) {
+        return toUnit(percentileMicros(first, second, percentile), unit);
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        totalCount.reset();
+        totalMicros.reset();
+        maxMicros.set(0);
+    }
+
+    /**
+     * @param second Second histogram, or null
+     */
+    private static long percentileMicros(LatencyHistogram first, LatencyHistogram second, double percentile) {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += count(first, second, i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long max = second != null ? Math.max(first.maxMicros.get(), second.maxMicros.get()) : first.maxMicros.get();
+        long target = Math.max(1, (long) Math.ceil(total * Math.min(percentile, 100) / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += count(first, second, i);
+            if (seen >= target) {
+                return Math.min(bucketUpperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    private static long count(LatencyHistogram first, LatencyHistogram second, int index) {
+        long count = first.counts.get(index);
+        return second != null ? count + second.counts.get(index) : count;
+    }
+
+    static int bucketIndex(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int shift = exponent - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((micros >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long lower = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lower + (1L << shift) - 1;
+    }
+
+    private static double toUnit(long micros, TimeUnit unit) {
+        return (double) micros * 1000 / unit.toNanos(1);
+    }
+}
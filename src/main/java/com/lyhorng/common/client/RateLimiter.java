@@ -0,0 +1,73 @@
+package com.lyhorng.common.client;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Lock-free token bucket for one downstream host.
+ *
+ * Implemented as the generic cell rate algorithm: the whole bucket state is a single
+ * "theoretical arrival time" updated with one CAS per call, so there is no refill thread
+ * and no lock. Tokens refill continuously at limitForPeriod per limitRefreshPeriod,
+ * with a capacity of limitForPeriod.
+ */
+public class RateLimiter {
+
+    private final String name;
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final long timeoutNanos;
+    private final AtomicLong theoreticalArrival;
+    private final LongAdder rejectedCalls = new LongAdder();
+
+    public RateLimiter(String name, RateLimiterConfig config) {
+        this.name = name;
+        this.intervalNanos = Math.max(1, config.getLimitRefreshPeriod().toNanos() / config.getLimitForPeriod());
+        this.burstNanos = intervalNanos * config.getLimitForPeriod();
+        this.timeoutNanos = config.getTimeout().toNanos();
+        this.theoreticalArrival = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Take a token, waiting up to the configured timeout for one to become available
+     *
+     * @return false if no token is available within the timeout
+     */
+    public boolean tryAcquire() {
+        long waitNanos;
+        while (true) {
+            long now = System.nanoTime();
+            long current = theoreticalArrival.get();
+            long next = Math.max(current - now, 0) + now + intervalNanos;
+            waitNanos = next - burstNanos - now;
+            if (waitNanos > timeoutNanos) {
+                rejectedCalls.increment();
+                return false;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                break;
+            }
+        }
+        if (waitNanos > 0) {
+            LockSupport.parkNanos(waitNanos);
+        }
+        return true;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Approximate number of tokens currently available
+     */
+    public long getAvailableTokens() {
+        long headroom = burstNanos - Math.max(theoreticalArrival.get() - System.nanoTime(), 0);
+        return Math.max(headroom / intervalNanos, 0);
+    }
+
+    public long getRejectedCalls() {
+        return rejectedCalls.sum();
+    }
+}
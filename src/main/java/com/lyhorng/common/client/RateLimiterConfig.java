@@ -0,0 +1,27 @@
+package com.lyhorng.common.client;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * Settings for a per-host token bucket RateLimiter
+ */
+@Data
+public class RateLimiterConfig {
+
+    /**
+     * Number of calls permitted per refresh period; also the bucket capacity (burst size)
+     */
+    private int limitForPeriod = 100;
+
+    /**
+     * Period over which limitForPeriod tokens are refilled
+     */
+    private Duration limitRefreshPeriod = Duration.ofSeconds(1);
+
+    /**
+     * Maximum time to wait for a token; zero rejects immediately
+     */
+    private Duration timeout = Duration.ZERO;
+}
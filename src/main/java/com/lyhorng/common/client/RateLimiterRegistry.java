@@ -0,0 +1,18 @@
+package com.lyhorng.common.client;
+
+import java.util.Map;
+
+/**
+ * Holds one RateLimiter per downstream host, created on first use
+ */
+public class RateLimiterRegistry extends HostRegistry<RateLimiter, RateLimiterConfig> {
+
+    public RateLimiterRegistry(RateLimiterConfig defaultConfig, Map<String, RateLimiterConfig> hostConfigs) {
+        super(defaultConfig, hostConfigs);
+    }
+
+    @Override
+    protected RateLimiter create(String host, RateLimiterConfig config) {
+        return new RateLimiter(host, config);
+    }
+}
@@ -0,0 +1,102 @@
+package com.lyhorng.common.client;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight coalescing of identical concurrent calls.
+ * The first caller for a key performs the call; callers arriving while it is in flight
+ * wait for and share its result (or its exception). The in-flight entry is removed as soon
+ * as the call completes, so a failure never poisons later calls.
+ *
+ * Shared results are the same object instance for every caller and must be treated as read-only.
+ */
+public class RequestCoalescer {
+
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final List<String> keyHeaders;
+    private final LongAdder leaders = new LongAdder();
+    private final LongAdder followers = new LongAdder();
+
+    /**
+     * @param keyHeaders Request headers whose values are part of the coalescing key (e.g. Authorization)
+     */
+    public RequestCoalescer(Collection<String> keyHeaders) {
+        this.keyHeaders = keyHeaders == null ? List.of() : List.copyOf(keyHeaders);
+    }
+
+    /**
+     * Build the coalescing key for a GET of the resolved URL
+     */
+    public String key(String resolvedUrl, Map<String, String> headers, Class<?> responseType) {
+        return RequestKeys.of(resolvedUrl, headers, responseType, keyHeaders);
+    }
+
+    /**
+     * Execute the call, or join an identical call already in flight
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Supplier<T> call) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            followers.increment();
+            return (T) await(existing);
+        }
+
+        leaders.increment();
+        T result;
+        try {
+            result = call.get();
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, future);
+            future.completeExceptionally(e);
+            throw e;
+        }
+        inFlight.remove(key, future);
+        future.complete(result);
+        return result;
+    }
+
+    /**
+     * Number of calls that went to the downstream service
+     */
+    public long getLeaderCount() {
+        return leaders.sum();
+    }
+
+    /**
+     * Number of calls that shared an in-flight result instead of calling downstream
+     */
+    public long getCoalescedCount() {
+        return followers.sum();
+    }
+
+    /**
+     * Number of distinct calls currently in flight
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    private static Object await(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
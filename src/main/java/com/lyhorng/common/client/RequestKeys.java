@@ -0,0 +1,89 @@
+package com.lyhorng.common.client;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds keys identifying equivalent GET requests
+ */
+public final class RequestKeys {
+
+    private static final String UNKNOWN_HOST = "unknown";
+
+    private RequestKeys() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Key made of the response type, the resolved URL and the values of the given headers
+     */
+    public static String of(String resolvedUrl, Map<String, String> headers, Class<?> responseType,
+                     List<String> keyHeaders) {
+        StringBuilder key = new StringBuilder(resolvedUrl.length() + 64)
+                .append(responseType.getName()).append(' ').append(resolvedUrl);
+        if (headers != null) {
+            for (String name : keyHeaders) {
+                String value = headerValue(headers, name);
+                if (value != null) {
+                    key.append('\n').append(name).append(':').append(value);
+                }
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Host name of a URL, or "unknown" if it has none.
+     * Scans the authority directly instead of parsing the whole URI, as this runs on every call.
+     */
+    public static String host(String url) {
+        int schemeEnd = url.indexOf("://");
+        if (schemeEnd < 0) {
+            return UNKNOWN_HOST;
+        }
+        int start = schemeEnd + 3;
+        int end = start;
+        int length = url.length();
+        while (end < length) {
+            char c = url.charAt(end);
+            if (c == '/' || c == '?' || c == '#') {
+                break;
+            }
+            if (c == '@') {
+                start = end + 1;
+            }
+            end++;
+        }
+        if (start < end && url.charAt(start) == '[') {
+            int close = url.indexOf(']', start);
+            return close > start && close < end ? url.substring(start, close + 1) : UNKNOWN_HOST;
+        }
+        int colon = url.lastIndexOf(':', end - 1);
+        if (colon >= start) {
+            end = colon;
+        }
+        return start < end ? url.substring(start, end) : UNKNOWN_HOST;
+    }
+
+    /**
+     * Host name of a parsed URI, or "unknown" if it has none
+     */
+    public static String host(URI uri) {
+        String host = uri.getHost();
+        return host != null ? host : UNKNOWN_HOST;
+    }
+
+    private static String headerValue(Map<String, String> headers, String name) {
+        String value = headers.get(name);
+        if (value != null) {
+            return value;
+        }
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (name.equalsIgnoreCase(header.getKey())) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+}
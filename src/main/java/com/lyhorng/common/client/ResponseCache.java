@@ -0,0 +1,306 @@
+package com.lyhorng.common.client;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded in-memory cache of deserialized GET responses.
+ *
+ * Freshness follows Cache-Control max-age (or Expires), capped by the configured TTL.
+ * Stale entries that carry an ETag or Last-Modified validator are revalidated with
+ * If-None-Match / If-Modified-Since; a 304 reuses the cached object without transferring
+ * or parsing a body. Responses marked no-store or private are never cached.
+ *
+ * Cached bodies are shared between callers and must be treated as read-only.
+ *
+ * Eviction order is kept in a queue of entries. Entries replaced by a later store or dropped
+ * after their TTL stay queued until the queue holds more than twice the live entries, at which
+ * point they are purged, so re-storing a hot key cannot grow it without bound.
+ */
+public class ResponseCache {
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicBoolean purging = new AtomicBoolean();
+    private final ConcurrentHashMap<String, HostCounters> hostCounters = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final List<String> keyHeaders;
+
+    /**
+     * @param maxEntries Maximum number of cached responses
+     * @param ttl Maximum lifetime of an entry, including revalidations
+     * @param keyHeaders Request headers whose values are part of the cache key (e.g. Authorization)
+     */
+    public ResponseCache(int maxEntries, Duration ttl, Collection<String> keyHeaders) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.keyHeaders = keyHeaders == null ? List.of() : List.copyOf(keyHeaders);
+    }
+
+    /**
+     * Build the cache key for a GET of the resolved URL
+     */
+    public String key(String resolvedUrl, Map<String, String> headers, Class<?> responseType) {
+        return RequestKeys.of(resolvedUrl, headers, responseType, keyHeaders);
+    }
+
+    /**
+     * Look up an entry, dropping it when its TTL has passed. The entry may be stale.
+     */
+    public Entry get(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null && System.nanoTime() - entry.evictAt > 0) {
+            remove(key, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * Add conditional request headers for revalidating a stale entry
+     */
+    public void addValidators(Entry entry, HttpHeaders requestHeaders) {
+        if (entry.etag != null) {
+            requestHeaders.set(HttpHeaders.IF_NONE_MATCH, entry.etag);
+        }
+        if (entry.lastModified != null) {
+            requestHeaders.set(HttpHeaders.IF_MODIFIED_SINCE, entry.lastModified);
+        }
+    }
+
+    /**
+     * Extend the freshness of an entry after a 304 Not Modified
+     */
+    public void revalidated(Entry entry, String host, HttpHeaders responseHeaders) {
+        long freshness = freshnessNanos(responseHeaders);
+        entry.freshUntil = System.nanoTime() + (freshness > 0 ? freshness : 0);
+        counters(host).revalidations.increment();
+    }
+
+    /**
+     * Store a 200 response if it is cacheable
+     */
+    public void store(String key, String host, ResponseEntity<?> response) {
+        counters(host).misses.increment();
+        if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
+            return;
+        }
+
+        HttpHeaders headers = response.getHeaders();
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl != null) {
+            String directives = cacheControl.toLowerCase(Locale.ROOT);
+            if (directives.contains("no-store") || directives.contains("private")) {
+                return;
+            }
+        }
+
+        long freshness = freshnessNanos(headers);
+        String etag = headers.getETag();
+        String lastModified = headers.getFirst(HttpHeaders.LAST_MODIFIED);
+        if (freshness <= 0 && etag == null && lastModified == null) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        Entry entry = new Entry(key, response.getBody(), etag, lastModified,
+                now + Math.min(Math.max(freshness, 0), ttlNanos), now + ttlNanos);
+        Entry previous = entries.put(key, entry);
+        if (previous == null) {
+            size.incrementAndGet();
+        }
+        insertionOrder.offer(entry);
+        queued.incrementAndGet();
+        counters(host).stores.increment();
+        evictOverflow();
+        purgeStale();
+    }
+
+    /**
+     * Record a hit served from a fresh entry
+     */
+    public void hit(String host) {
+        counters(host).hits.increment();
+    }
+
+    public void clear() {
+        entries.clear();
+        insertionOrder.clear();
+        queued.set(0);
+        size.set(0);
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Per-host hit/miss statistics
+     */
+    public Map<String, Stats> getStats() {
+        Map<String, Stats> stats = new TreeMap<>();
+        hostCounters.forEach((host, counters) -> stats.put(host, new Stats(
+                counters.hits.sum(), counters.revalidations.sum(),
+                counters.misses.sum(), counters.stores.sum())));
+        return stats;
+    }
+
+    private void evictOverflow() {
+        while (size.get() > maxEntries) {
+            Entry oldest = insertionOrder.poll();
+            if (oldest == null) {
+                return;
+            }
+            queued.decrementAndGet();
+            remove(oldest.key, oldest);
+        }
+    }
+
+    /**
+     * Drop queued entries that are no longer in the map once they outnumber the live ones
+     */
+    private void purgeStale() {
+        if (queued.get() <= 2 * size.get() + 16 || !purging.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            for (Iterator<Entry> it = insertionOrder.iterator(); it.hasNext(); ) {
+                Entry queuedEntry = it.next();
+                if (entries.get(queuedEntry.key) != queuedEntry) {
+                    it.remove();
+                    queued.decrementAndGet();
+                }
+            }
+        } finally {
+            purging.set(false);
+        }
+    }
+
+    /**
+     * Entries in the eviction queue, including replaced and expired ones not purged yet
+     */
+    int queuedEntries() {
+        return queued.get();
+    }
+
+    private void remove(String key, Entry entry) {
+        if (entries.remove(key, entry)) {
+            size.decrementAndGet();
+        }
+    }
+
+    private HostCounters counters(String host) {
+        return hostCounters.computeIfAbsent(host, h -> new HostCounters());
+    }
+
+    private static long freshnessNanos(HttpHeaders headers) {
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl != null) {
+            long maxAge = -1;
+            for (String directive : cacheControl.split(",")) {
+                String trimmed = directive.trim().toLowerCase(Locale.ROOT);
+                if (trimmed.equals("no-cache")) {
+                    return 0;
+                }
+                if (trimmed.startsWith("max-age=")) {
+                    try {
+                        maxAge = Long.parseLong(trimmed.substring(8).replace("\"", ""));
+                    } catch (NumberFormatException e) {
+                        return 0;
+                    }
+                }
+            }
+            if (maxAge >= 0) {
+                return Duration.ofSeconds(maxAge).toNanos();
+            }
+        }
+        long expires = headers.getExpires();
+        if (expires > 0) {
+            long date;
+            try {
+                date = headers.getDate();
+            } catch (IllegalArgumentException e) {
+                date = -1;
+            }
+            long base = date > 0 ? date : System.currentTimeMillis();
+            return Duration.ofMillis(expires - base).toNanos();
+        }
+        return 0;
+    }
+
+    /**
+     * Cached response body with its validators
+     */
+    public static final class Entry {
+        private final String key;
+        private final Object body;
+        private final String etag;
+        private final String lastModified;
+        private final long evictAt;
+        private volatile long freshUntil;
+
+        private Entry(String key, Object body, String etag, String lastModified, long freshUntil, long evictAt) {
+            this.key = key;
+            this.body = body;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.freshUntil = freshUntil;
+            this.evictAt = evictAt;
+        }
+
+        public boolean isFresh() {
+            return System.nanoTime() - freshUntil < 0;
+        }
+
+        public boolean hasValidators() {
+            return etag != null || lastModified != null;
+        }
+
+        @SuppressWarnings("unchecked")
+        public <T> T getBody() {
+            return (T) body;
+        }
+    }
+
+    /**
+     * Snapshot of cache statistics for one host
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Stats {
+        private final long hits;
+        private final long revalidations;
+        private final long misses;
+        private final long stores;
+
+        public double getHitRatio() {
+            long total = hits + revalidations + misses;
+            return total == 0 ? 0 : (double) (hits + revalidations) / total;
+        }
+    }
+
+    private static final class HostCounters {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder revalidations = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder stores = new LongAdder();
+    }
+}
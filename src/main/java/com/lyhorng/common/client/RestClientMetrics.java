@@ -0,0 +1,350 @@
+package com.lyhorng.common.client;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.HttpMethod;
+
+import java.io.InterruptedIOException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Latency histograms and outcome counters for outbound calls.
+ *
+ * One RollingLatencyHistogram is kept per host, method and status class (1xx..5xx, or "none"
+ * when no response was received). Series are created on first use; after that, recording a call
+ * is an array read and a histogram update. Timeouts and RestClientException types are counted
+ * per host, as are calls rejected locally (e.g. by an open circuit breaker or a full bulkhead)
+ * before reaching the host; those do not appear in the latency series.
+ *
+ * Counts, total times, timeouts, errors and rejections are cumulative since startup; percentiles and maxima
+ * cover the last one to two windows. Host names are lower-cased, and once maxHosts hosts are
+ * tracked any further host is recorded as "other", so the number of series stays bounded.
+ *
+ * Read the values with snapshot(), or register a Listener (e.g. the Micrometer binder) to be
+ * told when new series and counters appear.
+ */
+public class RestClientMetrics {
+
+    private static final String[] METHODS = {"GET", "POST", "PUT", "DELETE", "PATCH", "HEAD", "OPTIONS", "OTHER"};
+    private static final String[] STATUS_CLASSES = {"none", "1xx", "2xx", "3xx", "4xx", "5xx"};
+
+    /**
+     * Host name under which calls to hosts beyond maxHosts are recorded
+     */
+    public static final String OTHER_HOST = "other";
+
+    private final ConcurrentHashMap<String, HostMetrics> hosts = new ConcurrentHashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final long windowNanos;
+    private final int maxHosts;
+
+    public RestClientMetrics() {
+        this(Duration.ofMinutes(1), 100);
+    }
+
+    /**
+     * @param window Window of the latency percentiles and maxima
+     * @param maxHosts Hosts tracked individually; calls to any further host are recorded as "other"
+     */
+    public RestClientMetrics(Duration window, int maxHosts) {
+        if (window.isNegative() || window.isZero() || maxHosts < 1) {
+            throw new IllegalArgumentException("window must be positive and maxHosts at least 1");
+        }
+        this.windowNanos = window.toNanos();
+        this.maxHosts = maxHosts;
+    }
+
+    /**
+     * Record a completed call
+     *
+     * @param status HTTP status code, or 0 when no response was received
+     */
+    public void record(String host, HttpMethod method, int status, long nanos) {
+        hostMetrics(host).series(methodIndex(method), statusClassIndex(status)).recordNanos(nanos);
+    }
+
+    /**
+     * Count a failed call by exception type, and as a timeout when caused by one
+     */
+    public void recordFailure(String host, Throwable failure) {
+        HostMetrics metrics = hostMetrics(host);
+        if (isTimeout(failure)) {
+            metrics.timeouts.increment();
+        }
+        metrics.errorCounter(failure.getClass().getSimpleName()).increment();
+    }
+
+    /**
+     * Count a call rejected before it was sent, by reason (e.g. the ErrorCode of the rejection)
+     */
+    public void recordRejection(String host, String reason) {
+        HostMetrics metrics = hostMetrics(host);
+        metrics.rejectionCounter(reason).increment();
+    }
+
+    /**
+     * Register a listener; it is called for the series and counters that already exist
+     */
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+        hosts.values().forEach(metrics -> metrics.replay(listener));
+    }
+
+    public long getTimeouts(String host) {
+        HostMetrics metrics = hosts.get(normalize(host));
+        return metrics != null ? metrics.timeouts.sum() : 0;
+    }
+
+    public long getErrors(String host, String exceptionType) {
+        HostMetrics metrics = hosts.get(normalize(host));
+        LongAdder counter = metrics != null ? metrics.errors.get(exceptionType) : null;
+        return counter != null ? counter.sum() : 0;
+    }
+
+    public long getRejections(String host, String reason) {
+        HostMetrics metrics = hosts.get(normalize(host));
+        LongAdder counter = metrics != null ? metrics.rejections.get(reason) : null;
+        return counter != null ? counter.sum() : 0;
+    }
+
+    /**
+     * Point-in-time view of all series and counters
+     */
+    public Snapshot snapshot() {
+        List<SeriesSnapshot> series = new ArrayList<>();
+        Map<String, Long> timeouts = new TreeMap<>();
+        Map<String, Map<String, Long>> errors = new TreeMap<>();
+        Map<String, Map<String, Long>> rejections = new TreeMap<>();
+        new TreeMap<>(hosts).forEach((host, metrics) -> {
+            for (int i = 0; i < metrics.histograms.length(); i++) {
+                RollingLatencyHistogram histogram = metrics.histograms.get(i);
+                if (histogram != null) {
+                    series.add(SeriesSnapshot.of(new Series(host, methodName(i), statusClassName(i), histogram)));
+                }
+            }
+            timeouts.put(host, metrics.timeouts.sum());
+            errors.put(host, sums(metrics.errors));
+            rejections.put(host, sums(metrics.rejections));
+        });
+        return new Snapshot(series, timeouts, errors, rejections);
+    }
+
+    private static Map<String, Long> sums(Map<String, LongAdder> counters) {
+        Map<String, Long> sums = new TreeMap<>();
+        counters.forEach((key, counter) -> sums.put(key, counter.sum()));
+        return sums;
+    }
+
+    private HostMetrics hostMetrics(String host) {
+        host = normalize(host);
+        HostMetrics metrics = hosts.get(host);
+        if (metrics == null) {
+            if (hosts.size() >= maxHosts) {
+                host = OTHER_HOST;
+            }
+            metrics = hosts.computeIfAbsent(host, HostMetrics::new);
+            if (metrics.announced.compareAndSet(false, true)) {
+                for (Listener listener : listeners) {
+                    listener.onHost(host);
+                }
+            }
+        }
+        return metrics;
+    }
+
+    private static String normalize(String host) {
+        return host != null ? host.toLowerCase(Locale.ROOT) : "unknown";
+    }
+
+    /**
+     * Whether the failure was caused by a connect, read or response timeout
+     */
+    public static boolean isTimeout(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InterruptedIOException || cause instanceof HttpTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int methodIndex(HttpMethod method) {
+        if (method == null) {
+            return METHODS.length - 1;
+        }
+        switch (method.name()) {
+            case "GET": return 0;
+            case "POST": return 1;
+            case "PUT": return 2;
+            case "DELETE": return 3;
+            case "PATCH": return 4;
+            case "HEAD": return 5;
+            case "OPTIONS": return 6;
+            default: return METHODS.length - 1;
+        }
+    }
+
+    private static int statusClassIndex(int status) {
+        int statusClass = status / 100;
+        return statusClass >= 1 && statusClass <= 5 ? statusClass : 0;
+    }
+
+    private static String methodName(int seriesIndex) {
+        return METHODS[seriesIndex / STATUS_CLASSES.length];
+    }
+
+    private static String statusClassName(int seriesIndex) {
+        return STATUS_CLASSES[seriesIndex % STATUS_CLASSES.length];
+    }
+
+    /**
+     * Notified when a host, series or error counter is first used
+     */
+    public interface Listener {
+
+        default void onHost(String host) {
+        }
+
+        default void onSeries(Series series) {
+        }
+
+        default void onErrorType(String host, String exceptionType) {
+        }
+
+        default void onRejectionReason(String host, String reason) {
+        }
+    }
+
+    /**
+     * Live latency histogram of one host, method and status class
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Series {
+        private final String host;
+        private final String method;
+        private final String statusClass;
+        private final RollingLatencyHistogram histogram;
+    }
+
+    /**
+     * Summary of one series, latencies in milliseconds; count and mean since startup,
+     * percentiles and max over the recent windows
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class SeriesSnapshot {
+        private final String host;
+        private final String method;
+        private final String statusClass;
+        private final long count;
+        private final double mean;
+        private final double p50;
+        private final double p90;
+        private final double p99;
+        private final double p999;
+        private final double max;
+
+        static SeriesSnapshot of(Series series) {
+            RollingLatencyHistogram histogram = series.getHistogram();
+            TimeUnit unit = TimeUnit.MILLISECONDS;
+            return new SeriesSnapshot(series.getHost(), series.getMethod(), series.getStatusClass(),
+                    histogram.getCount(), histogram.getMean(unit),
+                    histogram.getPercentile(50, unit), histogram.getPercentile(90, unit),
+                    histogram.getPercentile(99, unit), histogram.getPercentile(99.9, unit),
+                    histogram.getMax(unit));
+        }
+    }
+
+    /**
+     * Point-in-time view of all series, timeouts per host, errors per host and exception type,
+     * and rejections per host and reason
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Snapshot {
+        private final List<SeriesSnapshot> series;
+        private final Map<String, Long> timeouts;
+        private final Map<String, Map<String, Long>> errors;
+        private final Map<String, Map<String, Long>> rejections;
+    }
+
+    private final class HostMetrics {
+        private final String host;
+        private final AtomicReferenceArray<RollingLatencyHistogram> histograms =
+                new AtomicReferenceArray<>(METHODS.length * STATUS_CLASSES.length);
+        private final LongAdder timeouts = new LongAdder();
+        private final ConcurrentHashMap<String, LongAdder> errors = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<String, LongAdder> rejections = new ConcurrentHashMap<>();
+        private final AtomicBoolean announced = new AtomicBoolean();
+
+        private HostMetrics(String host) {
+            this.host = host;
+        }
+
+        private RollingLatencyHistogram series(int methodIndex, int statusClassIndex) {
+            int index = methodIndex * STATUS_CLASSES.length + statusClassIndex;
+            RollingLatencyHistogram histogram = histograms.get(index);
+            if (histogram != null) {
+                return histogram;
+            }
+            RollingLatencyHistogram created = new RollingLatencyHistogram(windowNanos);
+            if (histograms.compareAndSet(index, null, created)) {
+                Series series = new Series(host, METHODS[methodIndex], STATUS_CLASSES[statusClassIndex], created);
+                for (Listener listener : listeners) {
+                    listener.onSeries(series);
+                }
+                return created;
+            }
+            return histograms.get(index);
+        }
+
+        private LongAdder errorCounter(String exceptionType) {
+            LongAdder counter = errors.get(exceptionType);
+            return counter != null ? counter
+                    : register(errors, exceptionType, listener -> listener.onErrorType(host, exceptionType));
+        }
+
+        private LongAdder rejectionCounter(String reason) {
+            LongAdder counter = rejections.get(reason);
+            return counter != null ? counter
+                    : register(rejections, reason, listener -> listener.onRejectionReason(host, reason));
+        }
+
+        private LongAdder register(ConcurrentHashMap<String, LongAdder> counters, String key,
+                                   Consumer<Listener> announce) {
+            LongAdder created = new LongAdder();
+            LongAdder existing = counters.putIfAbsent(key, created);
+            if (existing != null) {
+                return existing;
+            }
+            listeners.forEach(announce);
+            return created;
+        }
+
+        private void replay(Listener listener) {
+            listener.onHost(host);
+            for (int i = 0; i < histograms.length(); i++) {
+                RollingLatencyHistogram histogram = histograms.get(i);
+                if (histogram != null) {
+                    listener.onSeries(new Series(host, methodName(i), statusClassName(i), histogram));
+                }
+            }
+            errors.keySet().forEach(type -> listener.onErrorType(host, type));
+            rejections.keySet().forEach(reason -> listener.onRejectionReason(host, reason));
+        }
+    }
+}
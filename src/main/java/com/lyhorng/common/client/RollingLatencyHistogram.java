@@ -0,0 +1,92 @@
+package com.lyhorng.common.client;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram that forgets old values: it keeps the current and the previous window.
+ *
+ * Percentiles and the maximum cover the last one to two windows, so a slow call stops being
+ * reported at most two windows after it happened. They are read from both windows in place, so
+ * reads do not allocate. Count and total time are cumulative since creation, as counters exported
+ * to monitoring systems must be.
+ */
+public class RollingLatencyHistogram {
+
+    private final long windowNanos;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private volatile LatencyHistogram current = new LatencyHistogram();
+    private volatile LatencyHistogram previous = new LatencyHistogram();
+    private volatile long windowStart = System.nanoTime();
+
+    public RollingLatencyHistogram(long windowNanos) {
+        if (windowNanos <= 0) {
+            throw new IllegalArgumentException("windowNanos must be positive");
+        }
+        this.windowNanos = windowNanos;
+    }
+
+    /**
+     * Record a duration in nanoseconds
+     */
+    public void recordNanos(long nanos) {
+        rotateIfDue();
+        current.recordNanos(nanos);
+        count.increment();
+        totalNanos.add(Math.max(nanos, 0));
+    }
+
+    /**
+     * Calls recorded since creation
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Total duration recorded since creation in the given unit
+     */
+    public double getTotalTime(TimeUnit unit) {
+        return (double) totalNanos.sum() / unit.toNanos(1);
+    }
+
+    /**
+     * Mean duration since creation in the given unit
+     */
+    public double getMean(TimeUnit unit) {
+        long calls = count.sum();
+        return calls == 0 ? 0 : getTotalTime(unit) / calls;
+    }
+
+    /**
+     * Duration at the given percentile (0-100) over the recent windows, or 0 if none was recorded
+     */
+    public double getPercentile(double percentile, TimeUnit unit) {
+        rotateIfDue();
+        return LatencyHistogram.getPercentile(previous, current, percentile, unit);
+    }
+
+    /**
+     * Maximum duration over the recent windows
+     */
+    public double getMax(TimeUnit unit) {
+        rotateIfDue();
+        return Math.max(previous.getMax(unit), current.getMax(unit));
+    }
+
+    private void rotateIfDue() {
+        long start = windowStart;
+        long elapsed = System.nanoTime() - start;
+        if (elapsed < windowNanos) {
+            return;
+        }
+        synchronized (this) {
+            if (windowStart == start) {
+                previous = elapsed < 2 * windowNanos ? current : new LatencyHistogram();
+                current = new LatencyHistogram();
+                windowStart = System.nanoTime();
+            }
+        }
+    }
+}
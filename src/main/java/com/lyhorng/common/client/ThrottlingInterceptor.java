@@ -0,0 +1,55 @@
+package com.lyhorng.common.client;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import com.lyhorng.common.exception.BusinessException;
+import com.lyhorng.common.exception.ErrorCode;
+
+import java.io.IOException;
+
+/**
+ * Applies the per-host rate limiter and bulkhead to each outbound call.
+ * Calls that cannot get a token or a concurrency slot in time are rejected with TOO_MANY_REQUESTS.
+ * The bulkhead slot is held until the response headers have been received.
+ * Either registry may be null when that limit is disabled.
+ */
+public class ThrottlingInterceptor implements ClientHttpRequestInterceptor {
+
+    private final RateLimiterRegistry rateLimiterRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+
+    public ThrottlingInterceptor(RateLimiterRegistry rateLimiterRegistry, BulkheadRegistry bulkheadRegistry) {
+        this.rateLimiterRegistry = rateLimiterRegistry;
+        this.bulkheadRegistry = bulkheadRegistry;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        String host = request.getURI().getHost();
+        if (host == null) {
+            host = "unknown";
+        }
+
+        if (rateLimiterRegistry != null && !rateLimiterRegistry.forHost(host).tryAcquire()) {
+            throw new BusinessException(ErrorCode.TOO_MANY_REQUESTS, "Rate limit exceeded for host " + host);
+        }
+
+        if (bulkheadRegistry == null) {
+            return execution.execute(request, body);
+        }
+
+        Bulkhead bulkhead = bulkheadRegistry.forHost(host);
+        if (!bulkhead.tryEnter()) {
+            throw new BusinessException(ErrorCode.TOO_MANY_REQUESTS, "Too many concurrent calls to host " + host);
+        }
+        try {
+            return execution.execute(request, body);
+        } finally {
+            bulkhead.exit();
+        }
+    }
+}
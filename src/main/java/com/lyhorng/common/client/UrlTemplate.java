@@ -0,0 +1,224 @@
+package com.lyhorng.common.client;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * URL template such as "https://api.example.com/users/{id}/orders?status={status}", parsed once.
+ *
+ * Expansion appends the pre-split literal parts and the encoded variable values to a single
+ * StringBuilder sized from the previous expansion, so no regex matching or re-parsing of the
+ * template happens per call. Variable values and query parameters are percent-encoded as
+ * UTF-8, keeping only RFC 3986 unreserved characters, so "/", "&amp;", "=" and "?" in a value
+ * can never change the structure of the URL. Literal parts are used as written.
+ *
+ * The resulting URI is already encoded and should be passed to RestTemplate as a URI,
+ * not as a String, otherwise it is encoded a second time.
+ */
+public final class UrlTemplate {
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private final String template;
+    private final String[] literals;
+    private final String[] names;
+    private final boolean hasQuery;
+    private volatile int lengthHint;
+
+    private UrlTemplate(String template) {
+        this.template = template;
+        List<String> literalParts = new ArrayList<>();
+        List<String> nameParts = new ArrayList<>();
+        int literalStart = 0;
+        int index = 0;
+        while (index < template.length()) {
+            int open = template.indexOf('{', index);
+            if (open < 0) {
+                break;
+            }
+            int close = closingBrace(template, open);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed variable in URL template: " + template);
+            }
+            String name = template.substring(open + 1, close);
+            int colon = name.indexOf(':');
+            if (colon >= 0) {
+                name = name.substring(0, colon);
+            }
+            name = name.trim();
+            if (name.isEmpty()) {
+                throw new IllegalArgumentException("Empty variable name in URL template: " + template);
+            }
+            literalParts.add(template.substring(literalStart, open));
+            nameParts.add(name);
+            literalStart = close + 1;
+            index = close + 1;
+        }
+        literalParts.add(template.substring(literalStart));
+
+        this.literals = literalParts.toArray(new String[0]);
+        this.names = nameParts.toArray(new String[0]);
+        this.hasQuery = template.indexOf('?') >= 0;
+        this.lengthHint = template.length() + 16;
+    }
+
+    /**
+     * Index of the brace closing the variable opened at the given index, counting nested braces
+     * as UriComponentsBuilder does, so a pattern such as {id:[0-9]{3}} is one variable; -1 if unclosed
+     */
+    private static int closingBrace(String template, int open) {
+        int depth = 0;
+        for (int i = open; i < template.length(); i++) {
+            char c = template.charAt(i);
+            if (c == '{') {
+                depth++;
+            } else if (c == '}' && --depth == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Parse a template. Variables are written as {name}; a ":pattern" suffix, which may itself
+     * contain braces, is ignored.
+     *
+     * @throws IllegalArgumentException if a variable is unclosed or unnamed
+     */
+    public static UrlTemplate compile(String template) {
+        return new UrlTemplate(template);
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    /**
+     * Variable names in order of appearance
+     */
+    public List<String> getVariableNames() {
+        return List.of(names);
+    }
+
+    /**
+     * Expand with positional values, one per variable occurrence in order (as RestTemplate does)
+     */
+    public URI expand(Object... values) {
+        if (values.length < names.length) {
+            throw new IllegalArgumentException("Not enough variable values to expand '" + template
+                    + "': expected " + names.length + " but got " + values.length);
+        }
+        StringBuilder url = new StringBuilder(lengthHint);
+        for (int i = 0; i < names.length; i++) {
+            url.append(literals[i]);
+            encode(url, values[i]);
+        }
+        url.append(literals[names.length]);
+        return toUri(url);
+    }
+
+    /**
+     * Expand with named values
+     */
+    public URI expand(Map<String, ?> values) {
+        return expand(values, null);
+    }
+
+    /**
+     * Expand with named values and append the given query parameters.
+     * Iterable parameter values are repeated; null values produce the name only.
+     */
+    public URI expand(Map<String, ?> values, Map<String, ?> queryParams) {
+        StringBuilder url = new StringBuilder(lengthHint);
+        for (int i = 0; i < names.length; i++) {
+            url.append(literals[i]);
+            if (values == null || !values.containsKey(names[i])) {
+                throw new IllegalArgumentException("Map has no value for '" + names[i] + "' in '" + template + "'");
+            }
+            encode(url, values.get(names[i]));
+        }
+        url.append(literals[names.length]);
+        if (queryParams != null && !queryParams.isEmpty()) {
+            url.append(hasQuery ? '&' : '?');
+            appendQuery(url, queryParams);
+        }
+        return toUri(url);
+    }
+
+    /**
+     * Append encoded name=value pairs separated by '&amp;'
+     */
+    public static void appendQuery(StringBuilder url, Map<String, ?> queryParams) {
+        boolean first = true;
+        for (Map.Entry<String, ?> param : queryParams.entrySet()) {
+            if (param.getValue() instanceof Iterable<?> values) {
+                for (Object value : values) {
+                    first = appendParam(url, param.getKey(), value, first);
+                }
+            } else {
+                first = appendParam(url, param.getKey(), param.getValue(), first);
+            }
+        }
+    }
+
+    /**
+     * Percent-encode a value, keeping only RFC 3986 unreserved characters.
+     * Values that need no encoding are appended as they are.
+     */
+    public static void encode(StringBuilder url, Object value) {
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        int length = text.length();
+        int i = 0;
+        while (i < length && isUnreserved(text.charAt(i))) {
+            i++;
+        }
+        if (i == length) {
+            url.append(text);
+            return;
+        }
+        url.append(text, 0, i);
+        for (byte b : text.substring(i).getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xFF);
+            if (isUnreserved(c)) {
+                url.append(c);
+            } else {
+                url.append('%').append(HEX[(b >> 4) & 0x0F]).append(HEX[b & 0x0F]);
+            }
+        }
+    }
+
+    private static boolean appendParam(StringBuilder url, String name, Object value, boolean first) {
+        if (!first) {
+            url.append('&');
+        }
+        encode(url, name);
+        if (value != null) {
+            url.append('=');
+            encode(url, value);
+        }
+        return false;
+    }
+
+    private URI toUri(StringBuilder url) {
+        if (url.length() > lengthHint) {
+            lengthHint = url.length();
+        }
+        return URI.create(url.toString());
+    }
+
+    private static boolean isUnreserved(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '-' || c == '.' || c == '_' || c == '~';
+    }
+
+    @Override
+    public String toString() {
+        return template;
+    }
+}
@@ -0,0 +1,30 @@
+package com.lyhorng.common.config;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Binary Jackson formats that can replace JSON on internal service-to-service calls.
+ * Each needs its jackson-dataformat module on the classpath.
+ */
+public enum BinaryFormat {
+
+    /**
+     * Jackson Smile (com.fasterxml.jackson.dataformat:jackson-dataformat-smile)
+     */
+    SMILE(new MediaType("application", "x-jackson-smile")),
+
+    /**
+     * CBOR, RFC 8949 (com.fasterxml.jackson.dataformat:jackson-dataformat-cbor)
+     */
+    CBOR(MediaType.APPLICATION_CBOR);
+
+    private final MediaType mediaType;
+
+    BinaryFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+}
@@ -0,0 +1,81 @@
+package com.lyhorng.common.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.util.ClassUtils;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Installs Smile/CBOR message converters that share the settings and modules of the JSON ObjectMapper.
+ *
+ * Spring MVC and RestTemplate already add default Smile/CBOR converters when the formats are on
+ * the classpath; those are replaced in place, otherwise the converter is added at the end so JSON
+ * stays the format used when the client expresses no preference.
+ */
+final class BinaryMessageConverters {
+
+    private BinaryMessageConverters() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    static void install(List<HttpMessageConverter<?>> converters, ObjectMapper objectMapper,
+                        Collection<BinaryFormat> formats) {
+        for (BinaryFormat format : formats) {
+            install(converters, objectMapper, format);
+        }
+    }
+
+    static void install(List<HttpMessageConverter<?>> converters, ObjectMapper objectMapper, BinaryFormat format) {
+        HttpMessageConverter<?> converter = create(objectMapper, format);
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i).getClass() == converter.getClass()) {
+                converters.set(i, converter);
+                return;
+            }
+        }
+        converters.add(converter);
+    }
+
+    private static HttpMessageConverter<?> create(ObjectMapper objectMapper, BinaryFormat format) {
+        switch (format) {
+            case SMILE:
+                requirePresent("com.fasterxml.jackson.dataformat.smile.SmileFactory", "jackson-dataformat-smile");
+                return SmileConverterFactory.create(objectMapper);
+            case CBOR:
+                requirePresent("com.fasterxml.jackson.dataformat.cbor.CBORFactory", "jackson-dataformat-cbor");
+                return CborConverterFactory.create(objectMapper);
+            default:
+                throw new IllegalArgumentException("Unsupported binary format: " + format);
+        }
+    }
+
+    private static void requirePresent(String className, String artifactId) {
+        if (!ClassUtils.isPresent(className, BinaryMessageConverters.class.getClassLoader())) {
+            throw new IllegalStateException("Binary format requires com.fasterxml.jackson.dataformat:"
+                    + artifactId + " on the classpath");
+        }
+    }
+
+    /**
+     * Separate classes so a missing optional format is never linked
+     */
+    private static final class SmileConverterFactory {
+
+        private static HttpMessageConverter<?> create(ObjectMapper objectMapper) {
+            return new MappingJackson2SmileHttpMessageConverter(objectMapper.copyWith(new SmileFactory()));
+        }
+    }
+
+    private static final class CborConverterFactory {
+
+        private static HttpMessageConverter<?> create(ObjectMapper objectMapper) {
+            return new MappingJackson2CborHttpMessageConverter(objectMapper.copyWith(new CBORFactory()));
+        }
+    }
+}
@@ -1,32 +1,88 @@
 package com.lyhorng.common.config;
 
-import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.Module;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.ClassUtils;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import com.lyhorng.common.response.ApiResponseSerializer;
+import com.lyhorng.common.util.JsonUtils;
+
+import java.util.List;
+
 @Configuration
 @ComponentScan(basePackages = "com.lyhorng.common")
+@EnableConfigurationProperties({JsonProperties.class, DeadlineProperties.class})
 public class CommonConfig implements WebMvcConfigurer {
-    
+
+    private static final String BLACKBIRD_MODULE = "com.fasterxml.jackson.module.blackbird.BlackbirdModule";
+
     @Bean
     @ConditionalOnMissingBean
-    public ObjectMapper objectMapper() {
-        return Jackson2ObjectMapperBuilder.json()
-                .modules(new JavaTimeModule())
-                .featuresToDisable(
-                        SerializationFeature.WRITE_DATES_AS_TIMESTAMPS,
-                        DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES
-                )
-                .featuresToEnable(
-                        DeserializationFeature.ACCEPT_EMPTY_STRING_AS_NULL_OBJECT
-                )
-                .build();
+    public ObjectMapper objectMapper(JsonProperties properties) {
+        Jackson2ObjectMapperBuilder builder = JsonUtils.defaultObjectMapperBuilder();
+        if (properties.getBlackbird().isEnabled()) {
+            // modules(...) adds to JavaTimeModule and keeps well-known module discovery off,
+            // unlike modulesToInstall(...), so enabling Blackbird cannot change the JSON
+            Module blackbird = BeanUtils.instantiateClass(blackbirdModule());
+            builder.modules(modules -> modules.add(blackbird));
+        }
+        if (properties.getEnvelopeSerializer().isEnabled()) {
+            builder.modules(modules -> modules.add(ApiResponseSerializer.module()));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Points JsonUtils at the application's ObjectMapper once all singletons are created
+     */
+    @Bean
+    public SmartInitializingSingleton jsonUtilsObjectMapperInitializer(ObjectProvider<ObjectMapper> objectMapper) {
+        return () -> objectMapper.ifUnique(JsonUtils::setObjectMapper);
+    }
+
+    /**
+     * Loaded by name, since jackson-module-blackbird is an optional dependency
+     */
+    @SuppressWarnings("unchecked")
+    private static Class<? extends Module> blackbirdModule() {
+        if (!ClassUtils.isPresent(BLACKBIRD_MODULE, CommonConfig.class.getClassLoader())) {
+            throw new IllegalStateException("common.json.blackbird.enabled is set but "
+                    + "com.fasterxml.jackson.module:jackson-module-blackbird is not on the classpath");
+        }
+        return (Class<? extends Module>) ClassUtils.resolveClassName(BLACKBIRD_MODULE, CommonConfig.class.getClassLoader());
+    }
+
+    /**
+     * Adds converters for the configured binary formats next to the JSON one
+     */
+    @Configuration
+    static class BinaryFormatConfig implements WebMvcConfigurer {
+
+        private final JsonProperties properties;
+        private final ObjectProvider<ObjectMapper> objectMapper;
+
+        BinaryFormatConfig(JsonProperties properties, ObjectProvider<ObjectMapper> objectMapper) {
+            this.properties = properties;
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+            if (!properties.getBinaryFormats().isEmpty()) {
+                BinaryMessageConverters.install(converters, objectMapper.getIfUnique(JsonUtils::getObjectMapper),
+                        properties.getBinaryFormats());
+            }
+        }
     }
-}
\ No newline at end of file
+}
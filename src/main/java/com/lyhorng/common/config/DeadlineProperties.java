@@ -0,0 +1,23 @@
+package com.lyhorng.common.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for DeadlineFilter
+ *
+ * <pre>
+ * common.deadline.max-timeout=2m
+ * </pre>
+ */
+@Data
+@ConfigurationProperties(prefix = "common.deadline")
+public class DeadlineProperties {
+
+    /**
+     * Upper bound for the X-Request-Timeout header; larger values sent by clients are reduced to it
+     */
+    private Duration maxTimeout = Duration.ofMinutes(5);
+}
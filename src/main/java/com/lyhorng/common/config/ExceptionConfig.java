@@ -0,0 +1,99 @@
+package com.lyhorng.common.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.RouterFunctions;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import com.lyhorng.common.exception.BusinessException;
+import com.lyhorng.common.exception.ErrorCode;
+import com.lyhorng.common.exception.ErrorCodeMetrics;
+import com.lyhorng.common.exception.ExceptionLogLimiter;
+import com.lyhorng.common.metrics.ErrorCodeMetricsBinder;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Exception creation and logging settings used by BusinessException and GlobalExceptionHandler
+ */
+@Configuration
+@EnableConfigurationProperties(ExceptionProperties.class)
+public class ExceptionConfig {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ExceptionLogLimiter exceptionLogLimiter(ExceptionProperties properties) {
+        ExceptionProperties.Log log = properties.getLog();
+        return new ExceptionLogLimiter(log.getMaxPerInterval(), log.getInterval());
+    }
+
+    /**
+     * Error response counts per ErrorCode, recorded by GlobalExceptionHandler.
+     * Enabled unless common.exception.metrics.enabled is false.
+     */
+    @Configuration
+    @ConditionalOnProperty(prefix = "common.exception.metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+    static class ErrorCodeMetricsConfig {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public ErrorCodeMetrics errorCodeMetrics(ExceptionProperties properties) {
+            ExceptionProperties.Metrics metrics = properties.getMetrics();
+            return new ErrorCodeMetrics(metrics.getWindow(), metrics.getBuckets());
+        }
+
+        /**
+         * Serves ErrorCodeMetrics.snapshot() as JSON, for services without Actuator
+         */
+        @Bean
+        @ConditionalOnProperty(prefix = "common.exception.metrics.endpoint", name = "enabled", havingValue = "true")
+        public RouterFunction<ServerResponse> errorCodeMetricsEndpoint(ErrorCodeMetrics errorCodeMetrics,
+                                                                      ExceptionProperties properties) {
+            return RouterFunctions.route()
+                    .GET(properties.getMetrics().getEndpoint().getPath(),
+                            request -> ServerResponse.ok().body(errorCodeMetrics.snapshot()))
+                    .build();
+        }
+
+        /**
+         * Bridges the counts to Micrometer when it is available
+         */
+        @Configuration
+        @ConditionalOnClass(MeterBinder.class)
+        static class ErrorCodeMeterBinderConfig {
+
+            @Bean
+            @ConditionalOnMissingBean
+            public ErrorCodeMetricsBinder errorCodeMetricsBinder(ErrorCodeMetrics errorCodeMetrics) {
+                return new ErrorCodeMetricsBinder(errorCodeMetrics);
+            }
+        }
+    }
+
+    /**
+     * Applies the stackless error codes to BusinessException, which is created without Spring
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "common.exception.stackless", name = "enabled", havingValue = "true")
+    public SmartInitializingSingleton businessExceptionStacklessInitializer(ExceptionProperties properties) {
+        Set<ErrorCode> errorCodes = properties.getStackless().getErrorCodes();
+        if (errorCodes.isEmpty()) {
+            errorCodes = EnumSet.noneOf(ErrorCode.class);
+            for (ErrorCode errorCode : ErrorCode.values()) {
+                if (errorCode.getHttpStatus().is4xxClientError()) {
+                    errorCodes.add(errorCode);
+                }
+            }
+        }
+        Set<ErrorCode> stackless = errorCodes;
+        return () -> BusinessException.setStacklessErrorCodes(stackless);
+    }
+}
@@ -0,0 +1,91 @@
+package com.lyhorng.common.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import com.lyhorng.common.exception.ErrorCode;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Configuration properties for BusinessException and GlobalExceptionHandler
+ *
+ * <pre>
+ * common.exception.stackless.enabled=true
+ * common.exception.stackless.error-codes=VALIDATION_ERROR,NOT_FOUND
+ * common.exception.log.max-per-interval=10
+ * common.exception.log.interval=1s
+ * common.exception.metrics.window=1m
+ * common.exception.metrics.endpoint.enabled=true
+ * common.exception.metrics.endpoint.path=/internal/errors
+ * </pre>
+ */
+@Data
+@ConfigurationProperties(prefix = "common.exception")
+public class ExceptionProperties {
+
+    private Stackless stackless = new Stackless();
+
+    private Log log = new Log();
+
+    private Metrics metrics = new Metrics();
+
+    @Data
+    public static class Stackless {
+
+        /**
+         * Create BusinessExceptions of expected client errors without a stack trace
+         */
+        private boolean enabled = false;
+
+        /**
+         * Error codes thrown without a stack trace; empty means every code with a 4xx status
+         */
+        private Set<ErrorCode> errorCodes = EnumSet.noneOf(ErrorCode.class);
+    }
+
+    @Data
+    public static class Log {
+
+        /**
+         * Maximum 4xx errors logged by GlobalExceptionHandler per error code and interval; the rest are counted
+         */
+        private int maxPerInterval = 10;
+
+        private Duration interval = Duration.ofSeconds(1);
+    }
+
+    @Data
+    public static class Metrics {
+
+        /**
+         * Count error responses per error code
+         */
+        private boolean enabled = true;
+
+        /**
+         * Sliding window of the recent counts
+         */
+        private Duration window = Duration.ofMinutes(1);
+
+        /**
+         * Buckets the window is divided into; the window moves one bucket at a time
+         */
+        private int buckets = 60;
+
+        private Endpoint endpoint = new Endpoint();
+    }
+
+    @Data
+    public static class Endpoint {
+
+        /**
+         * Serve the error counts as JSON with a GET on the path
+         */
+        private boolean enabled = false;
+
+        private String path = "/internal/errors";
+    }
+}
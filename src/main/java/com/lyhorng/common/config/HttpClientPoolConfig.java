@@ -0,0 +1,114 @@
+package com.lyhorng.common.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import com.lyhorng.common.client.DeadlineHttpContextFactory;
+import com.lyhorng.common.metrics.HttpClientPoolMetrics;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pooled, keep-alive HTTP transport for the RestTemplate used by RestClientUtil.
+ * Active when Apache HttpClient 5 is on the classpath and
+ * common.rest-client.transport is POOLED (the default).
+ */
+@Configuration
+@ConditionalOnClass(PoolingHttpClientConnectionManager.class)
+@ConditionalOnProperty(prefix = "common.rest-client", name = "transport", havingValue = "POOLED", matchIfMissing = true)
+@EnableConfigurationProperties(RestClientProperties.class)
+public class HttpClientPoolConfig {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    public PoolingHttpClientConnectionManager restClientConnectionManager(RestClientProperties properties) {
+        RestClientProperties.Pool pool = properties.getPool();
+
+        ConnectionConfig connectionConfig = ConnectionConfig.custom()
+                .setConnectTimeout(toTimeout(properties.getConnectTimeout()))
+                .setSocketTimeout(toTimeout(properties.getReadTimeout()))
+                .setTimeToLive(toTimeValue(pool.getTimeToLive()))
+                .setValidateAfterInactivity(toTimeValue(pool.getValidateAfterInactivity()))
+                .build();
+
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(pool.getMaxTotal())
+                .setMaxConnPerRoute(pool.getMaxPerRoute())
+                .setDefaultConnectionConfig(connectionConfig)
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    public CloseableHttpClient restClientHttpClient(PoolingHttpClientConnectionManager connectionManager,
+                                                    RestClientProperties properties) {
+        RestClientProperties.Pool pool = properties.getPool();
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig(properties))
+                .evictExpiredConnections()
+                .evictIdleConnections(toTimeValue(pool.getEvictIdleAfter()))
+                .build();
+    }
+
+    /**
+     * Per-request timeouts are shortened to the remaining time of the current Deadline
+     */
+    @Bean
+    @ConditionalOnMissingBean(ClientHttpRequestFactory.class)
+    public ClientHttpRequestFactory pooledClientHttpRequestFactory(CloseableHttpClient restClientHttpClient,
+                                                                   RestClientProperties properties) {
+        HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory(restClientHttpClient);
+        factory.setHttpContextFactory(
+                new DeadlineHttpContextFactory(requestConfig(properties), properties.getConnectTimeout()));
+        return factory;
+    }
+
+    /**
+     * Registers pool saturation gauges when Micrometer is available
+     */
+    @Configuration
+    @ConditionalOnClass(MeterBinder.class)
+    static class PoolMetricsConfig {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public HttpClientPoolMetrics httpClientPoolMetrics(PoolingHttpClientConnectionManager connectionManager) {
+            return new HttpClientPoolMetrics(connectionManager);
+        }
+    }
+
+    private static RequestConfig requestConfig(RestClientProperties properties) {
+        RestClientProperties.Pool pool = properties.getPool();
+        return RequestConfig.custom()
+                .setConnectionRequestTimeout(toTimeout(pool.getConnectionRequestTimeout()))
+                .setResponseTimeout(toTimeout(properties.getReadTimeout()))
+                .setDefaultKeepAlive(pool.getKeepAlive().toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    private static Timeout toTimeout(Duration duration) {
+        return Timeout.ofMilliseconds(duration.toMillis());
+    }
+
+    private static TimeValue toTimeValue(Duration duration) {
+        return TimeValue.ofMilliseconds(duration.toMillis());
+    }
+}
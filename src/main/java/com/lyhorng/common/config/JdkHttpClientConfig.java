@@ -0,0 +1,56 @@
+package com.lyhorng.common.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+
+import com.lyhorng.common.client.DeadlineJdkClientHttpRequestFactory;
+import com.lyhorng.common.util.ExecutorUtils;
+
+import java.net.http.HttpClient;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * java.net.http.HttpClient transport for the RestTemplate used by RestClientUtil.
+ * Active when common.rest-client.transport is JDK. With HTTP_2 (the default) concurrent calls
+ * to the same host are multiplexed over a single connection.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "common.rest-client", name = "transport", havingValue = "JDK")
+@EnableConfigurationProperties(RestClientProperties.class)
+public class JdkHttpClientConfig {
+
+    /**
+     * Executor for the HttpClient's asynchronous tasks. Unbounded, like the client's own default:
+     * a pool that ran tasks on the caller when saturated could run them on the selector manager
+     * thread and stall every multiplexed stream. Override by defining a bean named restClientHttpExecutor.
+     */
+    @Bean(name = "restClientHttpExecutor", destroyMethod = "shutdown")
+    @ConditionalOnMissingBean(name = "restClientHttpExecutor")
+    public ExecutorService restClientHttpExecutor(RestClientProperties properties) {
+        return ExecutorUtils.newUnboundedIoExecutor("rest-client-http", properties.getJdk().isVirtualThreads());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public HttpClient restClientJdkHttpClient(RestClientProperties properties,
+                                              @Qualifier("restClientHttpExecutor") ExecutorService restClientHttpExecutor) {
+        return HttpClient.newBuilder()
+                .version(properties.getJdk().getVersion())
+                .connectTimeout(properties.getConnectTimeout())
+                .executor(restClientHttpExecutor)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(ClientHttpRequestFactory.class)
+    public ClientHttpRequestFactory jdkClientHttpRequestFactory(HttpClient restClientJdkHttpClient,
+                                                                RestClientProperties properties) {
+        return new DeadlineJdkClientHttpRequestFactory(restClientJdkHttpClient, properties.getReadTimeout());
+    }
+}
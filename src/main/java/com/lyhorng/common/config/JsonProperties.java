@@ -0,0 +1,52 @@
+package com.lyhorng.common.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Configuration properties for the ObjectMapper created by CommonConfig
+ *
+ * <pre>
+ * common.json.blackbird.enabled=true
+ * common.json.envelope-serializer.enabled=false
+ * common.json.binary-formats=SMILE,CBOR
+ * </pre>
+ */
+@Data
+@ConfigurationProperties(prefix = "common.json")
+public class JsonProperties {
+
+    private Blackbird blackbird = new Blackbird();
+
+    private EnvelopeSerializer envelopeSerializer = new EnvelopeSerializer();
+
+    /**
+     * Binary formats that controllers accept and produce in addition to JSON, chosen through the
+     * Content-Type and Accept headers. JSON remains the default when a client states no preference.
+     */
+    private Set<BinaryFormat> binaryFormats = EnumSet.noneOf(BinaryFormat.class);
+
+    @Data
+    public static class Blackbird {
+
+        /**
+         * Register Jackson's Blackbird module, which replaces reflective getter, setter and
+         * constructor calls with generated lambdas. Requires jackson-module-blackbird on the classpath.
+         */
+        private boolean enabled = false;
+    }
+
+    @Data
+    public static class EnvelopeSerializer {
+
+        /**
+         * Write ApiResponse with ApiResponseSerializer instead of the bean serializer. The JSON is
+         * the same; the mapper falls back to the bean serializer by itself when a naming strategy
+         * or mix-ins on the response types would change it.
+         */
+        private boolean enabled = true;
+    }
+}
@@ -0,0 +1,43 @@
+package com.lyhorng.common.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.lyhorng.common.client.RestClientMetrics;
+import com.lyhorng.common.metrics.RestClientMetricsBinder;
+
+/**
+ * Latency and outcome recording for RestClientUtil calls.
+ * Enabled unless common.rest-client.metrics.enabled is false.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "common.rest-client.metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(RestClientProperties.class)
+public class RestClientMetricsConfig {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public RestClientMetrics restClientMetrics(RestClientProperties properties) {
+        RestClientProperties.Metrics metrics = properties.getMetrics();
+        return new RestClientMetrics(metrics.getWindow(), metrics.getMaxHosts());
+    }
+
+    /**
+     * Bridges the recorded metrics to Micrometer when it is available
+     */
+    @Configuration
+    @ConditionalOnClass(MeterBinder.class)
+    static class RestClientMeterBinderConfig {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public RestClientMetricsBinder restClientMetricsBinder(RestClientMetrics restClientMetrics) {
+            return new RestClientMetricsBinder(restClientMetrics);
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package com.lyhorng.common.config;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.HttpHeaders;
+
+import com.lyhorng.common.client.BulkheadConfig;
+import com.lyhorng.common.client.CircuitBreakerConfig;
+import com.lyhorng.common.client.HedgingConfig;
+import com.lyhorng.common.client.RateLimiterConfig;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Configuration properties for the outbound HTTP client used by RestClientUtil
+ *
+ * <pre>
+ * common.rest-client.transport=POOLED
+ * common.rest-client.connect-timeout=10s
+ * common.rest-client.read-timeout=30s
+ * common.rest-client.pool.max-total=200
+ * common.rest-client.pool.max-per-route=50
+ * common.rest-client.binary-format=SMILE
+ * </pre>
+ */
+@Data
+@ConfigurationProperties(prefix = "common.rest-client")
+public class RestClientProperties {
+
+    /**
+     * Transport backing the RestTemplate
+     */
+    private Transport transport = Transport.POOLED;
+
+    /**
+     * Timeout for establishing a TCP connection
+     */
+    private Duration connectTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Timeout waiting for response data (socket read timeout)
+     */
+    private Duration readTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Binary format to send request bodies in and to prefer for responses, with JSON as the
+     * response fallback. Only set it when all called services accept the format
+     * (e.g. common.json.binary-formats on the server side); unset means JSON only.
+     */
+    private BinaryFormat binaryFormat;
+
+    private Pool pool = new Pool();
+
+    private Jdk jdk = new Jdk();
+
+    private Async async = new Async();
+
+    private Coalescing coalescing = new Coalescing();
+
+    private Cache cache = new Cache();
+
+    private CircuitBreakers circuitBreaker = new CircuitBreakers();
+
+    private Bulkheads bulkhead = new Bulkheads();
+
+    private RateLimiters rateLimiter = new RateLimiters();
+
+    private Hedging hedging = new Hedging();
+
+    private Metrics metrics = new Metrics();
+
+    public enum Transport {
+        /**
+         * Apache HttpClient 5 with a pooling connection manager (requires httpclient5 on the classpath)
+         */
+        POOLED,
+        /**
+         * JDK HttpURLConnection, one connection per request
+         */
+        SIMPLE,
+        /**
+         * JDK java.net.http.HttpClient with HTTP/2 multiplexing (h2 over TLS, h2c upgrade for plain http)
+         */
+        JDK
+    }
+
+    @Data
+    public static class Pool {
+
+        /**
+         * Maximum number of connections across all routes
+         */
+        private int maxTotal = 200;
+
+        /**
+         * Maximum number of connections per route (scheme + host + port)
+         */
+        private int maxPerRoute = 50;
+
+        /**
+         * Keep-alive duration applied when the server does not send a Keep-Alive header
+         */
+        private Duration keepAlive = Duration.ofSeconds(30);
+
+        /**
+         * Total time to live of a pooled connection, regardless of activity
+         */
+        private Duration timeToLive = Duration.ofMinutes(5);
+
+        /**
+         * Connections idle for longer than this are closed by the background evictor
+         */
+        private Duration evictIdleAfter = Duration.ofSeconds(30);
+
+        /**
+         * Maximum time to wait for a connection to become available from the pool
+         */
+        private Duration connectionRequestTimeout = Duration.ofSeconds(5);
+
+        /**
+         * Re-validate connections that were idle for longer than this before reuse
+         */
+        private Duration validateAfterInactivity = Duration.ofSeconds(2);
+    }
+
+    @Data
+    public static class Jdk {
+
+        /**
+         * Preferred HTTP version; HTTP_2 falls back to HTTP/1.1 when the server does not support it
+         */
+        private HttpClient.Version version = HttpClient.Version.HTTP_2;
+
+        /**
+         * Run the client's asynchronous tasks on virtual threads when the JVM supports them (JDK 21+)
+         */
+        private boolean virtualThreads = true;
+    }
+
+    @Data
+    public static class Async {
+
+        /**
+         * Run async calls on virtual threads when the JVM supports them (JDK 21+)
+         */
+        private boolean virtualThreads = true;
+
+        /**
+         * Maximum platform threads when virtual threads are not used
+         */
+        private int maxThreads = 64;
+
+        /**
+         * Queue capacity of the platform thread pool; further calls run on the caller thread
+         */
+        private int queueCapacity = 1000;
+    }
+
+    @Data
+    public static class Coalescing {
+
+        /**
+         * Share one in-flight call between identical concurrent GETs
+         */
+        private boolean enabled = false;
+
+        /**
+         * Request headers that are part of the coalescing key in addition to the resolved URL
+         */
+        private List<String> keyHeaders = new ArrayList<>(List.of(HttpHeaders.AUTHORIZATION));
+    }
+
+    @Data
+    public static class Cache {
+
+        /**
+         * Cache GET responses in memory according to Cache-Control / ETag / Last-Modified
+         */
+        private boolean enabled = false;
+
+        /**
+         * Maximum number of cached responses
+         */
+        private int maxEntries = 1000;
+
+        /**
+         * Maximum lifetime of a cached response, including revalidations
+         */
+        private Duration ttl = Duration.ofMinutes(10);
+
+        /**
+         * Request headers that are part of the cache key in addition to the resolved URL
+         */
+        private List<String> keyHeaders = new ArrayList<>(List.of(HttpHeaders.AUTHORIZATION));
+    }
+
+    @Data
+    public static class CircuitBreakers {
+
+        /**
+         * Guard outbound calls with a circuit breaker per host
+         */
+        private boolean enabled = false;
+
+        /**
+         * Settings for hosts without an entry in hosts
+         */
+        private CircuitBreakerConfig defaults = new CircuitBreakerConfig();
+
+        /**
+         * Settings per host name, e.g. common.rest-client.circuit-breaker.hosts.[payment.internal].failure-rate-threshold
+         */
+        private Map<String, CircuitBreakerConfig> hosts = new HashMap<>();
+    }
+
+    @Data
+    public static class Bulkheads {
+
+        /**
+         * Limit concurrent calls per host
+         */
+        private boolean enabled = false;
+
+        /**
+         * Settings for hosts without an entry in hosts
+         */
+        private BulkheadConfig defaults = new BulkheadConfig();
+
+        /**
+         * Settings per host name
+         */
+        private Map<String, BulkheadConfig> hosts = new HashMap<>();
+    }
+
+    @Data
+    public static class RateLimiters {
+
+        /**
+         * Limit the call rate per host with a token bucket
+         */
+        private boolean enabled = false;
+
+        /**
+         * Settings for hosts without an entry in hosts
+         */
+        private RateLimiterConfig defaults = new RateLimiterConfig();
+
+        /**
+         * Settings per host name
+         */
+        private Map<String, RateLimiterConfig> hosts = new HashMap<>();
+    }
+
+    @Data
+    @EqualsAndHashCode(callSuper = true)
+    public static class Hedging extends HedgingConfig {
+
+        /**
+         * Send a second attempt for slow GETs
+         */
+        private boolean enabled = false;
+
+        /**
+         * Maximum platform threads running hedged calls when virtual threads are not used;
+         * when all are busy, hedges are skipped and primaries run on the caller thread
+         */
+        private int maxThreads = 64;
+    }
+
+    @Data
+    public static class Metrics {
+
+        /**
+         * Record latency histograms and outcome counters for every call
+         */
+        private boolean enabled = true;
+
+        /**
+         * Window of the reported latency percentiles and maxima; they cover the last one to two windows
+         */
+        private Duration window = Duration.ofMinutes(1);
+
+        /**
+         * Hosts tracked individually; calls to further hosts are recorded under the host "other"
+         */
+        private int maxHosts = 100;
+    }
+}
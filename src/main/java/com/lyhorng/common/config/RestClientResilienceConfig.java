@@ -0,0 +1,86 @@
+package com.lyhorng.common.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.lyhorng.common.client.BulkheadRegistry;
+import com.lyhorng.common.client.CircuitBreakerRegistry;
+import com.lyhorng.common.client.HedgingPolicy;
+import com.lyhorng.common.client.RateLimiterRegistry;
+import com.lyhorng.common.metrics.CircuitBreakerMetrics;
+import com.lyhorng.common.metrics.HedgingMetrics;
+import com.lyhorng.common.metrics.ThrottlingMetrics;
+
+/**
+ * Resilience components applied to the RestTemplate used by RestClientUtil
+ */
+@Configuration
+@EnableConfigurationProperties(RestClientProperties.class)
+public class RestClientResilienceConfig {
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "common.rest-client.circuit-breaker", name = "enabled", havingValue = "true")
+    public CircuitBreakerRegistry circuitBreakerRegistry(RestClientProperties properties) {
+        RestClientProperties.CircuitBreakers circuitBreakers = properties.getCircuitBreaker();
+        return new CircuitBreakerRegistry(circuitBreakers.getDefaults(), circuitBreakers.getHosts());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "common.rest-client.bulkhead", name = "enabled", havingValue = "true")
+    public BulkheadRegistry bulkheadRegistry(RestClientProperties properties) {
+        RestClientProperties.Bulkheads bulkheads = properties.getBulkhead();
+        return new BulkheadRegistry(bulkheads.getDefaults(), bulkheads.getHosts());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "common.rest-client.rate-limiter", name = "enabled", havingValue = "true")
+    public RateLimiterRegistry rateLimiterRegistry(RestClientProperties properties) {
+        RestClientProperties.RateLimiters rateLimiters = properties.getRateLimiter();
+        return new RateLimiterRegistry(rateLimiters.getDefaults(), rateLimiters.getHosts());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "common.rest-client.hedging", name = "enabled", havingValue = "true")
+    public HedgingPolicy hedgingPolicy(RestClientProperties properties) {
+        return new HedgingPolicy(properties.getHedging());
+    }
+
+    /**
+     * Registers resilience metrics when Micrometer is available
+     */
+    @Configuration
+    @ConditionalOnClass(MeterBinder.class)
+    static class ResilienceMetricsConfig {
+
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnProperty(prefix = "common.rest-client.circuit-breaker", name = "enabled", havingValue = "true")
+        public CircuitBreakerMetrics circuitBreakerMetrics(CircuitBreakerRegistry circuitBreakerRegistry) {
+            return new CircuitBreakerMetrics(circuitBreakerRegistry);
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        public ThrottlingMetrics throttlingMetrics(ObjectProvider<BulkheadRegistry> bulkheadRegistry,
+                                                   ObjectProvider<RateLimiterRegistry> rateLimiterRegistry) {
+            return new ThrottlingMetrics(bulkheadRegistry.getIfAvailable(), rateLimiterRegistry.getIfAvailable());
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnProperty(prefix = "common.rest-client.hedging", name = "enabled", havingValue = "true")
+        public HedgingMetrics hedgingMetrics(HedgingPolicy hedgingPolicy) {
+            return new HedgingMetrics(hedgingPolicy);
+        }
+    }
+}
@@ -1,40 +1,142 @@
 package com.lyhorng.common.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
 import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import com.lyhorng.common.client.BulkheadRegistry;
+import com.lyhorng.common.client.CircuitBreakerInterceptor;
+import com.lyhorng.common.client.CircuitBreakerRegistry;
+import com.lyhorng.common.client.DeadlineSimpleClientHttpRequestFactory;
+import com.lyhorng.common.client.HedgingPolicy;
+import com.lyhorng.common.client.RateLimiterRegistry;
+import com.lyhorng.common.client.RequestCoalescer;
+import com.lyhorng.common.client.ResponseCache;
+import com.lyhorng.common.client.RestClientMetrics;
+import com.lyhorng.common.client.ThrottlingInterceptor;
+import com.lyhorng.common.util.ExecutorUtils;
+import com.lyhorng.common.util.JsonUtils;
 import com.lyhorng.common.util.RestClientUtil;
 
-import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 
 @Configuration
+@EnableConfigurationProperties(RestClientProperties.class)
 public class RestTemplateConfig {
     
+    private final RestClientProperties properties;
+    
+    public RestTemplateConfig(RestClientProperties properties) {
+        this.properties = properties;
+    }
+    
+    /**
+     * Uses the ClientHttpRequestFactory bean when present (pooled transport by default),
+     * falling back to SimpleClientHttpRequestFactory otherwise.
+     * Timeouts are configured on the request factory itself.
+     * Resilience interceptors are added for the components that are enabled, and a converter
+     * for the binary format when one is configured.
+     */
     @Bean
     @ConditionalOnMissingBean
-    public RestTemplate restTemplate(RestTemplateBuilder builder) {
-        return builder
-                .setConnectTimeout(Duration.ofSeconds(10))
-                .setReadTimeout(Duration.ofSeconds(30))
-                .requestFactory(this::clientHttpRequestFactory)
+    public RestTemplate restTemplate(RestTemplateBuilder builder,
+                                     ObjectProvider<ClientHttpRequestFactory> requestFactory,
+                                     ObjectProvider<CircuitBreakerRegistry> circuitBreakerRegistry,
+                                     ObjectProvider<RateLimiterRegistry> rateLimiterRegistry,
+                                     ObjectProvider<BulkheadRegistry> bulkheadRegistry,
+                                     ObjectProvider<ObjectMapper> objectMapper) {
+        // Throttling runs first, so calls it rejects locally never reach the circuit breaker
+        // and are not counted as failures of the downstream host
+        List<ClientHttpRequestInterceptor> interceptors = new ArrayList<>();
+        if (rateLimiterRegistry.getIfAvailable() != null || bulkheadRegistry.getIfAvailable() != null) {
+            interceptors.add(new ThrottlingInterceptor(
+                    rateLimiterRegistry.getIfAvailable(), bulkheadRegistry.getIfAvailable()));
+        }
+        circuitBreakerRegistry.ifAvailable(registry -> interceptors.add(new CircuitBreakerInterceptor(registry)));
+        
+        RestTemplate restTemplate = builder
+                .requestFactory(() -> requestFactory.getIfUnique(this::clientHttpRequestFactory))
+                .additionalInterceptors(interceptors)
                 .build();
+        if (properties.getBinaryFormat() != null) {
+            BinaryMessageConverters.install(restTemplate.getMessageConverters(),
+                    objectMapper.getIfUnique(JsonUtils::getObjectMapper), properties.getBinaryFormat());
+        }
+        return restTemplate;
+    }
+    
+    /**
+     * Executor for RestClientUtil async calls. Override by defining a bean named restClientExecutor.
+     */
+    @Bean(name = "restClientExecutor", destroyMethod = "shutdown")
+    @ConditionalOnMissingBean(name = "restClientExecutor")
+    public ExecutorService restClientExecutor() {
+        RestClientProperties.Async async = properties.getAsync();
+        return ExecutorUtils.newIoExecutor("rest-client", async.getMaxThreads(),
+                async.getQueueCapacity(), async.isVirtualThreads());
+    }
+    
+    /**
+     * Executor for hedged GETs. Rejects instead of running on the caller when saturated,
+     * so a hedge is skipped rather than sent after the primary. Override by defining a bean
+     * named restClientHedgingExecutor.
+     */
+    @Bean(name = "restClientHedgingExecutor", destroyMethod = "shutdown")
+    @ConditionalOnMissingBean(name = "restClientHedgingExecutor")
+    @ConditionalOnProperty(prefix = "common.rest-client.hedging", name = "enabled", havingValue = "true")
+    public ExecutorService restClientHedgingExecutor() {
+        return ExecutorUtils.newRejectingIoExecutor("rest-client-hedging", properties.getHedging().getMaxThreads(),
+                0, properties.getAsync().isVirtualThreads());
     }
     
     @Bean
     @ConditionalOnMissingBean
-    public RestClientUtil restClientUtil(RestTemplate restTemplate) {
-        return new RestClientUtil(restTemplate);
+    public RestClientUtil restClientUtil(RestTemplate restTemplate,
+                                         @Qualifier("restClientExecutor") Executor restClientExecutor,
+                                         @Qualifier("restClientHedgingExecutor") ObjectProvider<Executor> restClientHedgingExecutor,
+                                         ObjectProvider<HedgingPolicy> hedgingPolicy,
+                                         ObjectProvider<RestClientMetrics> restClientMetrics) {
+        RestClientUtil restClientUtil = new RestClientUtil(restTemplate, restClientExecutor);
+        hedgingPolicy.ifAvailable(policy -> {
+            Executor hedgingExecutor = restClientHedgingExecutor.getIfAvailable();
+            if (hedgingExecutor != null) {
+                restClientUtil.setHedgingPolicy(policy, hedgingExecutor);
+            } else {
+                restClientUtil.setHedgingPolicy(policy);
+            }
+        });
+        restClientMetrics.ifAvailable(restClientUtil::setMetrics);
+        if (properties.getBinaryFormat() != null) {
+            restClientUtil.setPreferredMediaType(properties.getBinaryFormat().getMediaType());
+        }
+        if (properties.getCoalescing().isEnabled()) {
+            restClientUtil.setRequestCoalescer(new RequestCoalescer(properties.getCoalescing().getKeyHeaders()));
+        }
+        if (properties.getCache().isEnabled()) {
+            RestClientProperties.Cache cache = properties.getCache();
+            restClientUtil.setResponseCache(
+                    new ResponseCache(cache.getMaxEntries(), cache.getTtl(), cache.getKeyHeaders()));
+        }
+        return restClientUtil;
     }
     
     private ClientHttpRequestFactory clientHttpRequestFactory() {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setConnectTimeout(10000);
-        factory.setReadTimeout(30000);
+        SimpleClientHttpRequestFactory factory = new DeadlineSimpleClientHttpRequestFactory();
+        factory.setConnectTimeout((int) properties.getConnectTimeout().toMillis());
+        factory.setReadTimeout((int) properties.getReadTimeout().toMillis());
         return factory;
     }
-}
\ No newline at end of file
+}
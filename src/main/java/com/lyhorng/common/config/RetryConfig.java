@@ -0,0 +1,53 @@
+package com.lyhorng.common.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.lyhorng.common.metrics.RetryBudgetMetrics;
+import com.lyhorng.common.util.RetryBudgetRegistry;
+import com.lyhorng.common.util.RetryUtil;
+
+/**
+ * Process-wide retry budgets used by RetryUtil for named operations
+ */
+@Configuration
+@EnableConfigurationProperties(RetryProperties.class)
+public class RetryConfig {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public RetryBudgetRegistry retryBudgetRegistry(RetryProperties properties) {
+        RetryProperties.Budget budget = properties.getBudget();
+        return new RetryBudgetRegistry(budget.getDefaults(), budget.getOperations());
+    }
+
+    /**
+     * Points RetryUtil, which is called statically, at the application's registry once all
+     * singletons are created
+     */
+    @Bean
+    public SmartInitializingSingleton retryUtilBudgetRegistryInitializer(
+            ObjectProvider<RetryBudgetRegistry> retryBudgetRegistry) {
+        return () -> retryBudgetRegistry.ifUnique(RetryUtil::setRetryBudgetRegistry);
+    }
+
+    /**
+     * Registers retry budget metrics when Micrometer is available
+     */
+    @Configuration
+    @ConditionalOnClass(MeterBinder.class)
+    static class RetryMetricsConfig {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public RetryBudgetMetrics retryBudgetMetrics(RetryBudgetRegistry retryBudgetRegistry) {
+            return new RetryBudgetMetrics(retryBudgetRegistry);
+        }
+    }
+}
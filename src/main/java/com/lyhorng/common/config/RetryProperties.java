@@ -0,0 +1,39 @@
+package com.lyhorng.common.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import com.lyhorng.common.util.RetryBudgetConfig;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Configuration properties for RetryUtil
+ *
+ * <pre>
+ * common.retry.budget.defaults.percent=10
+ * common.retry.budget.defaults.max-tokens=10
+ * common.retry.budget.operations.[payment.charge].percent=5
+ * </pre>
+ */
+@Data
+@ConfigurationProperties(prefix = "common.retry")
+public class RetryProperties {
+
+    private Budget budget = new Budget();
+
+    @Data
+    public static class Budget {
+
+        /**
+         * Settings for operations without an entry in operations
+         */
+        private RetryBudgetConfig defaults = new RetryBudgetConfig();
+
+        /**
+         * Settings per operation name
+         */
+        private Map<String, RetryBudgetConfig> operations = new HashMap<>();
+    }
+}
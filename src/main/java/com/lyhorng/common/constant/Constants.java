@@ -16,6 +16,7 @@ public class Constants {
     public static final String HEADER_REQUEST_ID = "X-Request-ID";
     public static final String HEADER_API_KEY = "X-API-Key";
     public static final String HEADER_USER_ID = "X-User-ID";
+    public static final String HEADER_REQUEST_TIMEOUT = "X-Request-Timeout";
     
     // Date Format Constants
     public static final String DATE_FORMAT = "yyyy-MM-dd";
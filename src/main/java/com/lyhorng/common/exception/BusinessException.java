@@ -2,9 +2,21 @@ package com.lyhorng.common.exception;
 
 import lombok.Getter;
 
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Exception carrying an ErrorCode, turned into an error response by GlobalExceptionHandler.
+ *
+ * Error codes set with {@link #setStacklessErrorCodes(Set)} (typically the expected 4xx ones)
+ * create exceptions without capturing a stack trace, which is most of the cost of throwing.
+ * A cause, if given, keeps its own stack trace.
+ */
 @Getter
 public class BusinessException extends RuntimeException {
     
+    private static volatile Set<ErrorCode> stacklessErrorCodes = EnumSet.noneOf(ErrorCode.class);
+    
     private final ErrorCode errorCode;
     private final String details;
     private final Object[] args;
@@ -14,6 +26,7 @@ public class BusinessException extends RuntimeException {
         this.errorCode = errorCode;
         this.details = null;
         this.args = null;
+        fillInStackTrace(errorCode);
     }
     
     public BusinessException(ErrorCode errorCode, String details) {
@@ -21,6 +34,7 @@ public class BusinessException extends RuntimeException {
         this.errorCode = errorCode;
         this.details = details;
         this.args = null;
+        fillInStackTrace(errorCode);
     }
     
     public BusinessException(ErrorCode errorCode, String details, Object... args) {
@@ -28,6 +42,7 @@ public class BusinessException extends RuntimeException {
         this.errorCode = errorCode;
         this.details = details;
         this.args = args;
+        fillInStackTrace(errorCode);
     }
     
     public BusinessException(ErrorCode errorCode, Throwable cause) {
@@ -35,6 +50,7 @@ public class BusinessException extends RuntimeException {
         this.errorCode = errorCode;
         this.details = null;
         this.args = null;
+        fillInStackTrace(errorCode);
     }
     
     public BusinessException(ErrorCode errorCode, String details, Throwable cause) {
@@ -42,6 +58,7 @@ public class BusinessException extends RuntimeException {
         this.errorCode = errorCode;
         this.details = details;
         this.args = null;
+        fillInStackTrace(errorCode);
     }
     
     public BusinessException(String message) {
@@ -49,6 +66,7 @@ public class BusinessException extends RuntimeException {
         this.errorCode = ErrorCode.BUSINESS_ERROR;
         this.details = message;
         this.args = null;
+        fillInStackTrace(errorCode);
     }
     
     public BusinessException(String message, Throwable cause) {
@@ -56,5 +74,37 @@ public class BusinessException extends RuntimeException {
         this.errorCode = ErrorCode.BUSINESS_ERROR;
         this.details = message;
         this.args = null;
+        fillInStackTrace(errorCode);
+    }
+    
+    /**
+     * Error codes whose exceptions are created without a stack trace; empty (the default) keeps all traces
+     */
+    public static void setStacklessErrorCodes(Set<ErrorCode> errorCodes) {
+        stacklessErrorCodes = errorCodes == null || errorCodes.isEmpty()
+                ? EnumSet.noneOf(ErrorCode.class)
+                : EnumSet.copyOf(errorCodes);
+    }
+    
+    public static Set<ErrorCode> getStacklessErrorCodes() {
+        return EnumSet.copyOf(stacklessErrorCodes);
+    }
+    
+    /**
+     * Called by the Throwable constructor before errorCode is set; the trace is then filled in at
+     * the end of the BusinessException constructor, once the error code is known
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return errorCode == null ? this : super.fillInStackTrace();
+    }
+    
+    /**
+     * Named fillInStackTrace so that, like the constructors, its frame is left out of the trace
+     */
+    private void fillInStackTrace(ErrorCode errorCode) {
+        if (!stacklessErrorCodes.contains(errorCode)) {
+            super.fillInStackTrace();
+        }
     }
-}
\ No newline at end of file
+}
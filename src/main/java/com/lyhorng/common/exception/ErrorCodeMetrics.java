@@ -0,0 +1,161 @@
+package com.lyhorng.common.exception;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts of the error responses produced per ErrorCode, since startup and over a sliding window.
+ *
+ * Each ErrorCode has a fixed slot holding a striped total and a ring of striped bucket counters
+ * covering the window (60 one-second buckets by default). Recording is an array read, a bucket
+ * epoch check and two LongAdder increments; nothing is allocated once the adders have striped.
+ * A bucket is reset lazily by the first recording after it has expired, so an increment racing
+ * with that reset may be lost: windowed counts are approximate, totals are exact.
+ *
+ * Read values with snapshot(), or bind them to Micrometer with ErrorCodeMetricsBinder.
+ */
+public class ErrorCodeMetrics {
+
+    private static final ErrorCode[] ERROR_CODES = ErrorCode.values();
+
+    private final int buckets;
+    private final long bucketNanos;
+    private final long origin = System.nanoTime();
+    private final Series[] series = new Series[ERROR_CODES.length];
+
+    public ErrorCodeMetrics() {
+        this(Duration.ofMinutes(1), 60);
+    }
+
+    /**
+     * @param window length of the sliding window
+     * @param buckets number of buckets the window is divided into
+     */
+    public ErrorCodeMetrics(Duration window, int buckets) {
+        if (buckets < 1 || window.toNanos() < buckets) {
+            throw new IllegalArgumentException("buckets must be >= 1 and window at least 1ns per bucket");
+        }
+        this.buckets = buckets;
+        this.bucketNanos = window.toNanos() / buckets;
+        for (int i = 0; i < series.length; i++) {
+            series[i] = new Series(buckets);
+        }
+    }
+
+    /**
+     * Count one error response with the given ErrorCode
+     */
+    public void record(ErrorCode errorCode) {
+        Series codeSeries = series[errorCode.ordinal()];
+        long epoch = currentEpoch();
+        int index = (int) (epoch % buckets);
+        long bucketEpoch = codeSeries.epochs.get(index);
+        if (bucketEpoch < epoch && codeSeries.epochs.compareAndSet(index, bucketEpoch, epoch)) {
+            codeSeries.counts[index].reset();
+        }
+        codeSeries.counts[index].increment();
+        codeSeries.total.increment();
+    }
+
+    /**
+     * Errors with the ErrorCode since startup
+     */
+    public long getTotal(ErrorCode errorCode) {
+        return series[errorCode.ordinal()].total.sum();
+    }
+
+    /**
+     * Errors with the ErrorCode within the sliding window
+     */
+    public long getRecent(ErrorCode errorCode) {
+        Series codeSeries = series[errorCode.ordinal()];
+        long oldest = currentEpoch() - buckets + 1;
+        long recent = 0;
+        for (int i = 0; i < buckets; i++) {
+            if (codeSeries.epochs.get(i) >= oldest) {
+                recent += codeSeries.counts[i].sum();
+            }
+        }
+        return recent;
+    }
+
+    public Duration getWindow() {
+        return Duration.ofNanos(bucketNanos * buckets);
+    }
+
+    /**
+     * Point-in-time view of every ErrorCode that has occurred, with totals per HTTP status
+     */
+    public Snapshot snapshot() {
+        double windowSeconds = getWindow().toNanos() / 1_000_000_000.0;
+        List<ErrorCodeSnapshot> errors = new ArrayList<>();
+        Map<Integer, Long> totalByStatus = new TreeMap<>();
+        Map<Integer, Long> recentByStatus = new TreeMap<>();
+        for (ErrorCode errorCode : ERROR_CODES) {
+            long total = getTotal(errorCode);
+            if (total == 0) {
+                continue;
+            }
+            long recent = getRecent(errorCode);
+            int status = errorCode.getHttpStatus().value();
+            errors.add(new ErrorCodeSnapshot(errorCode.name(), errorCode.getCode(), status,
+                    total, recent, recent / windowSeconds));
+            totalByStatus.merge(status, total, Long::sum);
+            recentByStatus.merge(status, recent, Long::sum);
+        }
+        return new Snapshot(getWindow().toMillis(), errors, totalByStatus, recentByStatus);
+    }
+
+    private long currentEpoch() {
+        return (System.nanoTime() - origin) / bucketNanos;
+    }
+
+    /**
+     * Counts of one ErrorCode; rate is per second over the window
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class ErrorCodeSnapshot {
+        private final String errorCode;
+        private final String code;
+        private final int status;
+        private final long total;
+        private final long recent;
+        private final double rate;
+    }
+
+    /**
+     * Counts per ErrorCode and per HTTP status; "recent" values cover the last windowMillis
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Snapshot {
+        private final long windowMillis;
+        private final List<ErrorCodeSnapshot> errors;
+        private final Map<Integer, Long> totalByStatus;
+        private final Map<Integer, Long> recentByStatus;
+    }
+
+    private static final class Series {
+        private final LongAdder total = new LongAdder();
+        private final LongAdder[] counts;
+        private final AtomicLongArray epochs;
+
+        private Series(int buckets) {
+            this.counts = new LongAdder[buckets];
+            this.epochs = new AtomicLongArray(buckets);
+            for (int i = 0; i < buckets; i++) {
+                counts[i] = new LongAdder();
+                epochs.set(i, -buckets);
+            }
+        }
+    }
+}
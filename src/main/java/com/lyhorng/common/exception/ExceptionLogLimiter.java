@@ -0,0 +1,72 @@
+package com.lyhorng.common.exception;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits how often exceptions of each ErrorCode are logged.
+ *
+ * At most maxPerInterval occurrences per ErrorCode are logged in each interval; the rest are
+ * only counted, and the count is reported with the next occurrence that is logged. State is one
+ * fixed slot per ErrorCode, so deciding costs a few atomic operations and never allocates.
+ */
+public class ExceptionLogLimiter {
+
+    private final int maxPerInterval;
+    private final long intervalNanos;
+    private final Window[] windows = new Window[ErrorCode.values().length];
+
+    public ExceptionLogLimiter() {
+        this(10, Duration.ofSeconds(1));
+    }
+
+    public ExceptionLogLimiter(int maxPerInterval, Duration interval) {
+        if (maxPerInterval < 0 || interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("maxPerInterval must be >= 0 and interval positive");
+        }
+        this.maxPerInterval = maxPerInterval;
+        this.intervalNanos = interval.toNanos();
+        long now = System.nanoTime();
+        for (int i = 0; i < windows.length; i++) {
+            windows[i] = new Window(now);
+        }
+    }
+
+    /**
+     * Record an occurrence
+     *
+     * @return -1 if it should not be logged, otherwise the number of occurrences suppressed since
+     *         the last one that was logged
+     */
+    public long tryAcquire(ErrorCode errorCode) {
+        Window window = windows[errorCode.ordinal()];
+        long now = System.nanoTime();
+        long start = window.start.get();
+        if (now - start >= intervalNanos && window.start.compareAndSet(start, now)) {
+            window.count.set(0);
+        }
+        if (window.count.incrementAndGet() <= maxPerInterval) {
+            return window.suppressed.getAndSet(0);
+        }
+        window.suppressed.incrementAndGet();
+        return -1;
+    }
+
+    /**
+     * Occurrences of the ErrorCode not logged since the last one that was
+     */
+    public long getSuppressed(ErrorCode errorCode) {
+        return windows[errorCode.ordinal()].suppressed.get();
+    }
+
+    private static final class Window {
+        private final AtomicLong start;
+        private final AtomicInteger count = new AtomicInteger();
+        private final AtomicLong suppressed = new AtomicLong();
+
+        private Window(long start) {
+            this.start = new AtomicLong(start);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.lyhorng.common.exception;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -17,8 +18,8 @@ import org.springframework.web.servlet.NoHandlerFoundException;
 
 import com.lyhorng.common.response.ApiResponse;
 import com.lyhorng.common.response.ErrorResponse;
+import com.lyhorng.common.response.PrerenderedErrorResponse;
 
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -26,29 +27,47 @@ import java.util.stream.Collectors;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
     
+    /*
+     * Error bodies are PrerenderedErrorResponses: the code, messages and status below are encoded
+     * once, and each error only adds its path, timestamp, details and field errors.
+     */
+    private static final PrerenderedErrorResponse.Template VALIDATION_FAILED =
+            PrerenderedErrorResponse.template(ErrorCode.VALIDATION_ERROR, "Validation failed");
+    private static final PrerenderedErrorResponse.Template CONSTRAINT_VIOLATION =
+            PrerenderedErrorResponse.template(ErrorCode.VALIDATION_ERROR, "Constraint violation");
+    private static final PrerenderedErrorResponse.Template INVALID_REQUEST_BODY =
+            PrerenderedErrorResponse.template(ErrorCode.INVALID_FORMAT, "Invalid request body format");
+    private static final PrerenderedErrorResponse.Template MISSING_PARAMETER =
+            PrerenderedErrorResponse.template(ErrorCode.MISSING_REQUIRED_FIELD, "Missing required parameter");
+    private static final PrerenderedErrorResponse.Template INVALID_PARAMETER_TYPE =
+            PrerenderedErrorResponse.template(ErrorCode.INVALID_INPUT, "Invalid parameter type");
+    private static final PrerenderedErrorResponse.Template ENDPOINT_NOT_FOUND =
+            PrerenderedErrorResponse.template(ErrorCode.NOT_FOUND, "Endpoint not found");
+    private static final PrerenderedErrorResponse.Template UNEXPECTED_ERROR =
+            PrerenderedErrorResponse.template(ErrorCode.INTERNAL_SERVER_ERROR, "Internal server error");
+    
+    private final ExceptionLogLimiter logLimiter;
+    private final ErrorCodeMetrics errorMetrics;
+    
+    public GlobalExceptionHandler(ObjectProvider<ExceptionLogLimiter> logLimiter,
+                                  ObjectProvider<ErrorCodeMetrics> errorMetrics) {
+        this.logLimiter = logLimiter.getIfUnique(ExceptionLogLimiter::new);
+        this.errorMetrics = errorMetrics.getIfUnique();
+    }
+    
     @ExceptionHandler(BusinessException.class)
     public ResponseEntity<ApiResponse<ErrorResponse>> handleBusinessException(
             BusinessException ex, HttpServletRequest request) {
         
-        log.error("Business exception occurred: {}", ex.getMessage(), ex);
-        
-        ErrorResponse errorResponse = ErrorResponse.builder()
-                .errorCode(ex.getErrorCode().getCode())
-                .message(ex.getErrorCode().getMessage())
-                .details(ex.getDetails())
-                .status(ex.getErrorCode().getHttpStatus().value())
-                .path(request.getRequestURI())
-                .timestamp(LocalDateTime.now())
-                .build();
+        record(ex.getErrorCode());
+        if (ex.getErrorCode().getHttpStatus().is4xxClientError()) {
+            logClientError(ex.getErrorCode(), "Business exception occurred", ex);
+        } else {
+            log.error("Business exception occurred: {}", ex.getMessage(), ex);
+        }
         
-        ApiResponse<ErrorResponse> response = ApiResponse.<ErrorResponse>builder()
-                .success(false)
-                .message(ex.getErrorCode().getMessage())
-                .data(errorResponse)
-                .errorCode(ex.getErrorCode().getCode())
-                .path(request.getRequestURI())
-                .timestamp(LocalDateTime.now())
-                .build();
+        ApiResponse<ErrorResponse> response = PrerenderedErrorResponse.of(
+                ex.getErrorCode(), ex.getDetails(), request.getRequestURI());
         
         return ResponseEntity
                 .status(ex.getErrorCode().getHttpStatus())
@@ -59,7 +78,8 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ApiResponse<ErrorResponse>> handleValidationException(
             MethodArgumentNotValidException ex, HttpServletRequest request) {
         
-        log.error("Validation exception occurred: {}", ex.getMessage());
+        record(ErrorCode.VALIDATION_ERROR);
+        logClientError(ErrorCode.VALIDATION_ERROR, "Validation exception occurred", ex);
         
         List<ErrorResponse.FieldError> fieldErrors = ex.getBindingResult()
                 .getAllErrors()
@@ -79,23 +99,8 @@ public class GlobalExceptionHandler {
                 })
                 .collect(Collectors.toList());
         
-        ErrorResponse errorResponse = ErrorResponse.builder()
-                .errorCode(ErrorCode.VALIDATION_ERROR.getCode())
-                .message("Validation failed")
-                .status(HttpStatus.BAD_REQUEST.value())
-                .path(request.getRequestURI())
-                .timestamp(LocalDateTime.now())
-                .fieldErrors(fieldErrors)
-                .build();
-        
-        ApiResponse<ErrorResponse> response = ApiResponse.<ErrorResponse>builder()
-                .success(false)
-                .message("Validation failed")
-                .data(errorResponse)
-                .errorCode(ErrorCode.VALIDATION_ERROR.getCode())
-                .path(request.getRequestURI())
-                .timestamp(LocalDateTime.now())
-                .build();
+        ApiResponse<ErrorResponse> response = PrerenderedErrorResponse.of(
+                VALIDATION_FAILED, null, null, request.getRequestURI(), fieldErrors);
         
         return ResponseEntity.badRequest().body(response);
     }
@@ -104,7 +109,8 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ApiResponse<ErrorResponse>> handleConstraintViolationException(
             ConstraintViolationException ex, HttpServletRequest request) {
         
-        log.error("Constraint violation exception occurred: {}", ex.getMessage());
+        record(ErrorCode.VALIDATION_ERROR);
+        logClientError(ErrorCode.VALIDATION_ERROR, "Constraint violation exception occurred", ex);
         
         List<ErrorResponse.FieldError> fieldErrors = ex.getConstraintViolations()
                 .stream()
@@ -115,23 +121,8 @@ public class GlobalExceptionHandler {
                         .build())
                 .collect(Collectors.toList());
         
-        ErrorResponse errorResponse = ErrorResponse.builder()
-                .errorCode(ErrorCode.VALIDATION_ERROR.getCode())
-                .message("Constraint violation")
-                .status(HttpStatus.BAD_REQUEST.value())
-                .path(request.getRequestURI())
-                .timestamp(LocalDateTime.now())
-                .fieldErrors(fieldErrors)
-                .build();
-        
-        ApiResponse<ErrorResponse> response = ApiResponse.<ErrorResponse>builder()
-                .success(false)
-                .message("Constraint violation")
-                .data(errorResponse)
-                .errorCode(ErrorCode.VALIDATION_ERROR.getCode())
-                .path(request.getRequestURI())
-                .timestamp(LocalDateTime.now())
-                .build();
+        ApiResponse<ErrorResponse> response = PrerenderedErrorResponse.of(
+                CONSTRAINT_VIOLATION, null, null, request.getRequestURI(), fieldErrors);
         
         return ResponseEntity.badRequest().body(response);
     }
@@ -140,25 +131,11 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ApiResponse<ErrorResponse>> handleHttpMessageNotReadableException(
             HttpMessageNotReadableException ex, HttpServletRequest request) {
         
-        log.error("HTTP message not readable exception: {}", ex.getMessage());
+        record(ErrorCode.INVALID_FORMAT);
+        logClientError(ErrorCode.INVALID_FORMAT, "HTTP message not readable exception", ex);
         
-        ErrorResponse errorResponse = ErrorResponse.builder()
-                .errorCode(ErrorCode.INVALID_FORMAT.getCode())
-                .message("Invalid request body format")
-                .details(ex.getMessage())
-                .status(HttpStatus.BAD_REQUEST.value())
-                .path(request.getRequestURI())
-                .timestamp(LocalDateTime.now())
-                .build();
-        
-        ApiResponse<ErrorResponse> response = ApiResponse.<ErrorResponse>builder()
-                .success(false)
-                .message("Invalid request body format")
-                .data(errorResponse)
-                .errorCode(ErrorCode.INVALID_FORMAT.getCode())
-                .path(request.getRequestURI())
-                .timestamp(LocalDateTime.now())
-                .build();
+        ApiResponse<ErrorResponse> response = PrerenderedErrorResponse.of(
+                INVALID_REQUEST_BODY, ex.getMessage(), request.getRequestURI());
         
         return ResponseEntity.badRequest().body(response);
     }
@@ -167,24 +144,13 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ApiResponse<ErrorResponse>> handleMissingServletRequestParameterException(
             MissingServletRequestParameterException ex, HttpServletRequest request) {
         
-        log.error("Missing request parameter exception: {}", ex.getMessage());
-        
-        ErrorResponse errorResponse = ErrorResponse.builder()
-                .errorCode(ErrorCode.MISSING_REQUIRED_FIELD.getCode())
-                .message(String.format("Required parameter '%s' is missing", ex.getParameterName()))
-                .status(HttpStatus.BAD_REQUEST.value())
-                .path(request.getRequestURI())
-                .timestamp(LocalDateTime.now())
-                .build();
+        record(ErrorCode.MISSING_REQUIRED_FIELD);
+        logClientError(ErrorCode.MISSING_REQUIRED_FIELD, "Missing request parameter exception", ex);
         
-        ApiResponse<ErrorResponse> response = ApiResponse.<ErrorResponse>builder()
-                .success(false)
-                .message("Missing required parameter")
-                .data(errorResponse)
-                .errorCode(ErrorCode.MISSING_REQUIRED_FIELD.getCode())
-                .path(request.getRequestURI())
-                .timestamp(LocalDateTime.now())
-                .build();
+        ApiResponse<ErrorResponse> response = PrerenderedErrorResponse.of(
+                MISSING_PARAMETER,
+                String.format("Required parameter '%s' is missing", ex.getParameterName()),
+                null, request.getRequestURI(), null);
         
         return ResponseEntity.badRequest().body(response);
     }
@@ -193,27 +159,14 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ApiResponse<ErrorResponse>> handleMethodArgumentTypeMismatchException(
             MethodArgumentTypeMismatchException ex, HttpServletRequest request) {
         
-        log.error("Method argument type mismatch exception: {}", ex.getMessage());
+        record(ErrorCode.INVALID_INPUT);
+        logClientError(ErrorCode.INVALID_INPUT, "Method argument type mismatch exception", ex);
         
         String message = String.format("Invalid value '%s' for parameter '%s'", 
                 ex.getValue(), ex.getName());
         
-        ErrorResponse errorResponse = ErrorResponse.builder()
-                .errorCode(ErrorCode.INVALID_INPUT.getCode())
-                .message(message)
-                .status(HttpStatus.BAD_REQUEST.value())
-                .path(request.getRequestURI())
-                .timestamp(LocalDateTime.now())
-                .build();
-        
-        ApiResponse<ErrorResponse> response = ApiResponse.<ErrorResponse>builder()
-                .success(false)
-                .message("Invalid parameter type")
-                .data(errorResponse)
-                .errorCode(ErrorCode.INVALID_INPUT.getCode())
-                .path(request.getRequestURI())
-                .timestamp(LocalDateTime.now())
-                .build();
+        ApiResponse<ErrorResponse> response = PrerenderedErrorResponse.of(
+                INVALID_PARAMETER_TYPE, message, null, request.getRequestURI(), null);
         
         return ResponseEntity.badRequest().body(response);
     }
@@ -222,24 +175,13 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ApiResponse<ErrorResponse>> handleHttpRequestMethodNotSupportedException(
             HttpRequestMethodNotSupportedException ex, HttpServletRequest request) {
         
-        log.error("HTTP method not supported exception: {}", ex.getMessage());
-        
-        ErrorResponse errorResponse = ErrorResponse.builder()
-                .errorCode(ErrorCode.METHOD_NOT_ALLOWED.getCode())
-                .message(String.format("Method '%s' is not supported", ex.getMethod()))
-                .status(HttpStatus.METHOD_NOT_ALLOWED.value())
-                .path(request.getRequestURI())
-                .timestamp(LocalDateTime.now())
-                .build();
+        record(ErrorCode.METHOD_NOT_ALLOWED);
+        logClientError(ErrorCode.METHOD_NOT_ALLOWED, "HTTP method not supported exception", ex);
         
-        ApiResponse<ErrorResponse> response = ApiResponse.<ErrorResponse>builder()
-                .success(false)
-                .message("Method not allowed")
-                .data(errorResponse)
-                .errorCode(ErrorCode.METHOD_NOT_ALLOWED.getCode())
-                .path(request.getRequestURI())
-                .timestamp(LocalDateTime.now())
-                .build();
+        ApiResponse<ErrorResponse> response = PrerenderedErrorResponse.of(
+                PrerenderedErrorResponse.template(ErrorCode.METHOD_NOT_ALLOWED),
+                String.format("Method '%s' is not supported", ex.getMethod()),
+                null, request.getRequestURI(), null);
         
         return ResponseEntity.status(HttpStatus.METHOD_NOT_ALLOWED).body(response);
     }
@@ -248,24 +190,11 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ApiResponse<ErrorResponse>> handleNoHandlerFoundException(
             NoHandlerFoundException ex, HttpServletRequest request) {
         
-        log.error("No handler found exception: {}", ex.getMessage());
+        record(ErrorCode.NOT_FOUND);
+        logClientError(ErrorCode.NOT_FOUND, "No handler found exception", ex);
         
-        ErrorResponse errorResponse = ErrorResponse.builder()
-                .errorCode(ErrorCode.NOT_FOUND.getCode())
-                .message("Endpoint not found")
-                .status(HttpStatus.NOT_FOUND.value())
-                .path(request.getRequestURI())
-                .timestamp(LocalDateTime.now())
-                .build();
-        
-        ApiResponse<ErrorResponse> response = ApiResponse.<ErrorResponse>builder()
-                .success(false)
-                .message("Endpoint not found")
-                .data(errorResponse)
-                .errorCode(ErrorCode.NOT_FOUND.getCode())
-                .path(request.getRequestURI())
-                .timestamp(LocalDateTime.now())
-                .build();
+        ApiResponse<ErrorResponse> response = PrerenderedErrorResponse.of(
+                ENDPOINT_NOT_FOUND, null, request.getRequestURI());
         
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
     }
@@ -274,25 +203,39 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ApiResponse<ErrorResponse>> handleGeneralException(
             Exception ex, HttpServletRequest request) {
         
+        record(ErrorCode.INTERNAL_SERVER_ERROR);
         log.error("Unexpected exception occurred: {}", ex.getMessage(), ex);
         
-        ErrorResponse errorResponse = ErrorResponse.builder()
-                .errorCode(ErrorCode.INTERNAL_SERVER_ERROR.getCode())
-                .message("An unexpected error occurred")
-                .status(HttpStatus.INTERNAL_SERVER_ERROR.value())
-                .path(request.getRequestURI())
-                .timestamp(LocalDateTime.now())
-                .build();
-        
-        ApiResponse<ErrorResponse> response = ApiResponse.<ErrorResponse>builder()
-                .success(false)
-                .message("Internal server error")
-                .data(errorResponse)
-                .errorCode(ErrorCode.INTERNAL_SERVER_ERROR.getCode())
-                .path(request.getRequestURI())
-                .timestamp(LocalDateTime.now())
-                .build();
+        ApiResponse<ErrorResponse> response = PrerenderedErrorResponse.of(
+                UNEXPECTED_ERROR, "An unexpected error occurred", null, request.getRequestURI(), null);
         
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
     }
-}
\ No newline at end of file
+    
+    private void record(ErrorCode errorCode) {
+        if (errorMetrics != null) {
+            errorMetrics.record(errorCode);
+        }
+    }
+    
+    /**
+     * Client errors (4xx) are expected under bad traffic: they are logged at WARN without the
+     * stack trace (DEBUG includes it), at most a few per error code and interval.
+     */
+    private void logClientError(ErrorCode errorCode, String description, Exception ex) {
+        if (!log.isWarnEnabled()) {
+            return;
+        }
+        long suppressed = logLimiter.tryAcquire(errorCode);
+        if (suppressed < 0) {
+            return;
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("{}: {} [{}], {} similar not logged",
+                    description, ex.getMessage(), errorCode.getCode(), suppressed, ex);
+        } else {
+            log.warn("{}: {} [{}], {} similar not logged",
+                    description, ex.getMessage(), errorCode.getCode(), suppressed);
+        }
+    }
+}
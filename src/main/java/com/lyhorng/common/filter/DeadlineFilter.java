@@ -0,0 +1,67 @@
+package com.lyhorng.common.filter;
+
+import jakarta.servlet.*;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.lyhorng.common.config.DeadlineProperties;
+import com.lyhorng.common.constant.Constants;
+import com.lyhorng.common.util.Deadline;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Filter setting the request Deadline from the X-Request-Timeout header (milliseconds the
+ * caller is willing to wait). Requests without the header have no deadline, and values above
+ * common.deadline.max-timeout are reduced to it.
+ */
+@Slf4j
+@Component
+@Order(2)
+public class DeadlineFilter implements Filter {
+
+    private final long maxTimeoutMillis;
+
+    public DeadlineFilter() {
+        this(new DeadlineProperties());
+    }
+
+    @Autowired
+    public DeadlineFilter(DeadlineProperties properties) {
+        this.maxTimeoutMillis = properties.getMaxTimeout().toMillis();
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        Deadline deadline = parse(((HttpServletRequest) request).getHeader(Constants.HEADER_REQUEST_TIMEOUT));
+        if (deadline == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        Deadline.set(deadline);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            Deadline.clear();
+        }
+    }
+
+    private Deadline parse(String timeout) {
+        if (timeout == null || timeout.isBlank()) {
+            return null;
+        }
+        try {
+            long millis = Long.parseLong(timeout.trim());
+            return millis > 0 ? Deadline.after(Duration.ofMillis(Math.min(millis, maxTimeoutMillis))) : null;
+        } catch (NumberFormatException e) {
+            log.debug("Ignoring invalid {} header: {}", Constants.HEADER_REQUEST_TIMEOUT, timeout);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.lyhorng.common.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import com.lyhorng.common.client.CircuitBreaker;
+import com.lyhorng.common.client.CircuitBreakerRegistry;
+
+import java.util.function.ToLongFunction;
+
+/**
+ * Exposes per-host circuit breaker state, tagged with host
+ *
+ * <ul>
+ *   <li>common.rest.client.circuit.state - 0 closed, 1 open, 2 half-open</li>
+ *   <li>common.rest.client.circuit.failure.rate - failure rate percent (-1 until enough calls)</li>
+ *   <li>common.rest.client.circuit.slow.call.rate - slow call rate percent (-1 until enough calls)</li>
+ *   <li>common.rest.client.circuit.calls - calls by outcome (successful, failed, slow, not_permitted)</li>
+ * </ul>
+ */
+public class CircuitBreakerMetrics implements MeterBinder {
+
+    private static final String PREFIX = "common.rest.client.circuit.";
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+
+    public CircuitBreakerMetrics(CircuitBreakerRegistry circuitBreakerRegistry) {
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        circuitBreakerRegistry.onCreate(breaker -> bind(registry, breaker));
+    }
+
+    private void bind(MeterRegistry registry, CircuitBreaker breaker) {
+        Tags tags = Tags.of("host", breaker.getName());
+
+        Gauge.builder(PREFIX + "state", breaker, b -> b.getState().ordinal())
+                .description("Circuit breaker state: 0 closed, 1 open, 2 half-open")
+                .tags(tags)
+                .register(registry);
+        Gauge.builder(PREFIX + "failure.rate", breaker, CircuitBreaker::getFailureRate)
+                .description("Failure rate in percent")
+                .tags(tags)
+                .register(registry);
+        Gauge.builder(PREFIX + "slow.call.rate", breaker, CircuitBreaker::getSlowCallRate)
+                .description("Slow call rate in percent")
+                .tags(tags)
+                .register(registry);
+
+        counter(registry, breaker, tags, "successful", CircuitBreaker::getSuccessfulCalls);
+        counter(registry, breaker, tags, "failed", CircuitBreaker::getFailedCalls);
+        counter(registry, breaker, tags, "slow", CircuitBreaker::getSlowCalls);
+        counter(registry, breaker, tags, "not_permitted", CircuitBreaker::getNotPermittedCalls);
+    }
+
+    private void counter(MeterRegistry registry, CircuitBreaker breaker, Tags tags, String kind,
+                         ToLongFunction<CircuitBreaker> count) {
+        FunctionCounter.builder(PREFIX + "calls", breaker, b -> count.applyAsLong(b))
+                .description("Circuit breaker calls by outcome")
+                .tags(tags.and("kind", kind))
+                .register(registry);
+    }
+}
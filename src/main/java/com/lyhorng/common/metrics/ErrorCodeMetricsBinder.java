@@ -0,0 +1,45 @@
+package com.lyhorng.common.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import com.lyhorng.common.exception.ErrorCode;
+import com.lyhorng.common.exception.ErrorCodeMetrics;
+
+/**
+ * Exposes the error responses counted by ErrorCodeMetrics, one series per ErrorCode
+ *
+ * <ul>
+ *   <li>common.errors - error responses since startup (error_code, code, status)</li>
+ *   <li>common.errors.recent - error responses within the sliding window (error_code, code, status)</li>
+ * </ul>
+ */
+public class ErrorCodeMetricsBinder implements MeterBinder {
+
+    private static final String PREFIX = "common.errors";
+
+    private final ErrorCodeMetrics metrics;
+
+    public ErrorCodeMetricsBinder(ErrorCodeMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (ErrorCode errorCode : ErrorCode.values()) {
+            Tags tags = Tags.of("error_code", errorCode.name(), "code", errorCode.getCode(),
+                    "status", String.valueOf(errorCode.getHttpStatus().value()));
+            FunctionCounter.builder(PREFIX, metrics, m -> m.getTotal(errorCode))
+                    .tags(tags)
+                    .description("Error responses by error code")
+                    .register(registry);
+            Gauge.builder(PREFIX + ".recent", metrics, m -> m.getRecent(errorCode))
+                    .tags(tags)
+                    .description("Error responses by error code within the last " + metrics.getWindow())
+                    .register(registry);
+        }
+    }
+}
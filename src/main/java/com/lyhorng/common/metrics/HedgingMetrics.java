@@ -0,0 +1,49 @@
+package com.lyhorng.common.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import com.lyhorng.common.client.HedgingPolicy;
+
+/**
+ * Exposes hedged request counters
+ *
+ * <ul>
+ *   <li>common.rest.client.hedge.sent - hedged attempts sent</li>
+ *   <li>common.rest.client.hedge.won - hedged attempts that returned before the primary</li>
+ *   <li>common.rest.client.hedge.rejected - hedges skipped because the budget was exhausted</li>
+ *   <li>common.rest.client.hedge.saturated - hedges skipped because the hedging executor was saturated</li>
+ *   <li>common.rest.client.hedge.budget.available - hedges currently allowed by the budget</li>
+ * </ul>
+ */
+public class HedgingMetrics implements MeterBinder {
+
+    private static final String PREFIX = "common.rest.client.hedge.";
+
+    private final HedgingPolicy hedgingPolicy;
+
+    public HedgingMetrics(HedgingPolicy hedgingPolicy) {
+        this.hedgingPolicy = hedgingPolicy;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder(PREFIX + "sent", hedgingPolicy, HedgingPolicy::getHedgesSent)
+                .description("Hedged attempts sent")
+                .register(registry);
+        FunctionCounter.builder(PREFIX + "won", hedgingPolicy, HedgingPolicy::getHedgesWon)
+                .description("Hedged attempts that returned first")
+                .register(registry);
+        FunctionCounter.builder(PREFIX + "rejected", hedgingPolicy, HedgingPolicy::getHedgesRejected)
+                .description("Hedges skipped because the budget was exhausted")
+                .register(registry);
+        FunctionCounter.builder(PREFIX + "saturated", hedgingPolicy, HedgingPolicy::getHedgesSaturated)
+                .description("Hedges skipped because the hedging executor was saturated")
+                .register(registry);
+        Gauge.builder(PREFIX + "budget.available", hedgingPolicy, HedgingPolicy::getBudgetAvailable)
+                .description("Hedges currently allowed by the budget")
+                .register(registry);
+    }
+}
@@ -0,0 +1,48 @@
+package com.lyhorng.common.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.hc.core5.pool.ConnPoolControl;
+import org.apache.hc.core5.pool.PoolStats;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Exposes saturation gauges for the pooled HTTP client connection manager
+ *
+ * <ul>
+ *   <li>common.rest.client.pool.leased - connections currently in use</li>
+ *   <li>common.rest.client.pool.available - idle connections kept alive in the pool</li>
+ *   <li>common.rest.client.pool.pending - callers waiting for a connection</li>
+ *   <li>common.rest.client.pool.max - configured maximum total connections</li>
+ *   <li>common.rest.client.pool.utilization - leased / max (1.0 means saturated)</li>
+ * </ul>
+ */
+public class HttpClientPoolMetrics implements MeterBinder {
+
+    private static final String PREFIX = "common.rest.client.pool.";
+
+    private final ConnPoolControl<?> pool;
+
+    public HttpClientPoolMetrics(ConnPoolControl<?> pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        gauge(registry, "leased", "Connections currently leased", PoolStats::getLeased);
+        gauge(registry, "available", "Idle connections available for reuse", PoolStats::getAvailable);
+        gauge(registry, "pending", "Requests waiting for a connection", PoolStats::getPending);
+        gauge(registry, "max", "Maximum total connections", PoolStats::getMax);
+        gauge(registry, "utilization", "Ratio of leased to maximum connections", stats ->
+                stats.getMax() == 0 ? 0 : (double) stats.getLeased() / stats.getMax());
+    }
+
+    private void gauge(MeterRegistry registry, String name, String description,
+                       ToDoubleFunction<PoolStats> value) {
+        Gauge.builder(PREFIX + name, pool, p -> value.applyAsDouble(p.getTotalStats()))
+                .description(description)
+                .register(registry);
+    }
+}
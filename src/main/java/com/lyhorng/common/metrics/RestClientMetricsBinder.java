@@ -0,0 +1,97 @@
+package com.lyhorng.common.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import com.lyhorng.common.client.RollingLatencyHistogram;
+import com.lyhorng.common.client.RestClientMetrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exposes RestClientUtil call metrics, registering meters as new hosts, series and error types appear.
+ * Percentiles and max cover the recent windows of RestClientMetrics; the rest is cumulative.
+ *
+ * <ul>
+ *   <li>common.rest.client.requests - call count and total time (host, method, status)</li>
+ *   <li>common.rest.client.requests.percentile - latency percentiles (host, method, status, quantile)</li>
+ *   <li>common.rest.client.requests.max - maximum latency (host, method, status)</li>
+ *   <li>common.rest.client.timeouts - calls that timed out (host)</li>
+ *   <li>common.rest.client.errors - failed calls (host, exception)</li>
+ *   <li>common.rest.client.rejections - calls rejected before being sent (host, reason)</li>
+ * </ul>
+ */
+public class RestClientMetricsBinder implements MeterBinder {
+
+    private static final String PREFIX = "common.rest.client.";
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    private static final String[] QUANTILES = {"0.5", "0.9", "0.99", "0.999"};
+
+    private final RestClientMetrics metrics;
+
+    public RestClientMetricsBinder(RestClientMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        metrics.addListener(new RestClientMetrics.Listener() {
+            @Override
+            public void onHost(String host) {
+                FunctionCounter.builder(PREFIX + "timeouts", metrics, m -> m.getTimeouts(host))
+                        .tag("host", host)
+                        .description("Outbound calls that timed out")
+                        .register(registry);
+            }
+
+            @Override
+            public void onSeries(RestClientMetrics.Series series) {
+                bindSeries(registry, series);
+            }
+
+            @Override
+            public void onErrorType(String host, String exceptionType) {
+                FunctionCounter.builder(PREFIX + "errors", metrics, m -> m.getErrors(host, exceptionType))
+                        .tags("host", host, "exception", exceptionType)
+                        .description("Failed outbound calls by exception type")
+                        .register(registry);
+            }
+
+            @Override
+            public void onRejectionReason(String host, String reason) {
+                FunctionCounter.builder(PREFIX + "rejections", metrics, m -> m.getRejections(host, reason))
+                        .tags("host", host, "reason", reason)
+                        .description("Outbound calls rejected before being sent, e.g. by an open circuit breaker")
+                        .register(registry);
+            }
+        });
+    }
+
+    private static void bindSeries(MeterRegistry registry, RestClientMetrics.Series series) {
+        Tags tags = Tags.of("host", series.getHost(), "method", series.getMethod(), "status", series.getStatusClass());
+        RollingLatencyHistogram histogram = series.getHistogram();
+        FunctionTimer.builder(PREFIX + "requests", histogram, RollingLatencyHistogram::getCount,
+                        h -> h.getTotalTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS)
+                .tags(tags)
+                .description("Outbound calls")
+                .register(registry);
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            double percentile = PERCENTILES[i];
+            TimeGauge.builder(PREFIX + "requests.percentile", histogram, TimeUnit.NANOSECONDS,
+                            h -> h.getPercentile(percentile, TimeUnit.NANOSECONDS))
+                    .tags(tags)
+                    .tag("quantile", QUANTILES[i])
+                    .description("Outbound call latency percentile")
+                    .register(registry);
+        }
+        TimeGauge.builder(PREFIX + "requests.max", histogram, TimeUnit.NANOSECONDS,
+                        h -> h.getMax(TimeUnit.NANOSECONDS))
+                .tags(tags)
+                .description("Maximum outbound call latency")
+                .register(registry);
+    }
+}
@@ -0,0 +1,56 @@
+package com.lyhorng.common.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import com.lyhorng.common.util.RetryBudget;
+import com.lyhorng.common.util.RetryBudgetRegistry;
+
+/**
+ * Exposes retry budget consumption, tagged with operation
+ *
+ * <ul>
+ *   <li>common.retry.budget.attempts - first attempts, each adding to the budget</li>
+ *   <li>common.retry.budget.retries - retries taken from the budget</li>
+ *   <li>common.retry.budget.rejected - retries refused because the budget was exhausted</li>
+ *   <li>common.retry.budget.available - retries currently allowed by the budget</li>
+ * </ul>
+ */
+public class RetryBudgetMetrics implements MeterBinder {
+
+    private static final String PREFIX = "common.retry.budget.";
+
+    private final RetryBudgetRegistry retryBudgetRegistry;
+
+    public RetryBudgetMetrics(RetryBudgetRegistry retryBudgetRegistry) {
+        this.retryBudgetRegistry = retryBudgetRegistry;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        retryBudgetRegistry.onCreate(budget -> bind(registry, budget));
+    }
+
+    private void bind(MeterRegistry registry, RetryBudget budget) {
+        Tags tags = Tags.of("operation", budget.getName());
+        FunctionCounter.builder(PREFIX + "attempts", budget, RetryBudget::getAttempts)
+                .description("First attempts of the operation")
+                .tags(tags)
+                .register(registry);
+        FunctionCounter.builder(PREFIX + "retries", budget, RetryBudget::getRetries)
+                .description("Retries taken from the budget")
+                .tags(tags)
+                .register(registry);
+        FunctionCounter.builder(PREFIX + "rejected", budget, RetryBudget::getRejectedRetries)
+                .description("Retries refused because the budget was exhausted")
+                .tags(tags)
+                .register(registry);
+        Gauge.builder(PREFIX + "available", budget, RetryBudget::getAvailableTokens)
+                .description("Retries currently allowed by the budget")
+                .tags(tags)
+                .register(registry);
+    }
+}
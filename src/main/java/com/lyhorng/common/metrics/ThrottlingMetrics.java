@@ -0,0 +1,77 @@
+package com.lyhorng.common.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import com.lyhorng.common.client.Bulkhead;
+import com.lyhorng.common.client.BulkheadRegistry;
+import com.lyhorng.common.client.RateLimiter;
+import com.lyhorng.common.client.RateLimiterRegistry;
+
+/**
+ * Exposes per-host bulkhead and rate limiter state, tagged with host
+ *
+ * <ul>
+ *   <li>common.rest.client.bulkhead.available - free concurrent call slots</li>
+ *   <li>common.rest.client.bulkhead.max - configured maximum concurrent calls</li>
+ *   <li>common.rest.client.bulkhead.rejected - calls rejected for lack of a slot</li>
+ *   <li>common.rest.client.ratelimiter.available - approximate tokens available</li>
+ *   <li>common.rest.client.ratelimiter.rejected - calls rejected for lack of a token</li>
+ * </ul>
+ */
+public class ThrottlingMetrics implements MeterBinder {
+
+    private static final String PREFIX = "common.rest.client.";
+
+    private final BulkheadRegistry bulkheadRegistry;
+    private final RateLimiterRegistry rateLimiterRegistry;
+
+    /**
+     * Either registry may be null when that limit is disabled
+     */
+    public ThrottlingMetrics(BulkheadRegistry bulkheadRegistry, RateLimiterRegistry rateLimiterRegistry) {
+        this.bulkheadRegistry = bulkheadRegistry;
+        this.rateLimiterRegistry = rateLimiterRegistry;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (bulkheadRegistry != null) {
+            bulkheadRegistry.onCreate(bulkhead -> bind(registry, bulkhead));
+        }
+        if (rateLimiterRegistry != null) {
+            rateLimiterRegistry.onCreate(rateLimiter -> bind(registry, rateLimiter));
+        }
+    }
+
+    private void bind(MeterRegistry registry, Bulkhead bulkhead) {
+        Tags tags = Tags.of("host", bulkhead.getName());
+        Gauge.builder(PREFIX + "bulkhead.available", bulkhead, Bulkhead::getAvailableConcurrentCalls)
+                .description("Free concurrent call slots")
+                .tags(tags)
+                .register(registry);
+        Gauge.builder(PREFIX + "bulkhead.max", bulkhead, Bulkhead::getMaxConcurrentCalls)
+                .description("Maximum concurrent calls")
+                .tags(tags)
+                .register(registry);
+        FunctionCounter.builder(PREFIX + "bulkhead.rejected", bulkhead, Bulkhead::getRejectedCalls)
+                .description("Calls rejected by the bulkhead")
+                .tags(tags)
+                .register(registry);
+    }
+
+    private void bind(MeterRegistry registry, RateLimiter rateLimiter) {
+        Tags tags = Tags.of("host", rateLimiter.getName());
+        Gauge.builder(PREFIX + "ratelimiter.available", rateLimiter, RateLimiter::getAvailableTokens)
+                .description("Approximate tokens available")
+                .tags(tags)
+                .register(registry);
+        FunctionCounter.builder(PREFIX + "ratelimiter.rejected", rateLimiter, RateLimiter::getRejectedCalls)
+                .description("Calls rejected by the rate limiter")
+                .tags(tags)
+                .register(registry);
+    }
+}
@@ -0,0 +1,242 @@
+package com.lyhorng.common.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.type.WritableTypeId;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes the ApiResponse envelope field by field instead of introspecting the bean.
+ *
+ * Field names are pre-encoded, the timestamp is formatted from a per-second cache and only
+ * data goes through Jackson's serializer lookup. The output is the same as the bean serializer
+ * would produce: success, message, data, errorCode, timestamp, path in that order, null fields
+ * omitted, timestamp as ISO-8601 (delegated to Jackson when WRITE_DATES_AS_TIMESTAMPS is on or
+ * LocalDateTime is not written by the default JavaTimeModule serializer).
+ * PrerenderedErrorResponse writes itself from its pre-encoded template.
+ *
+ * It is not bound to ApiResponse by annotation: {@link #module()} installs it on a mapper, and
+ * only for mappers without a PropertyNamingStrategy, SORT_PROPERTIES_ALPHABETICALLY or mix-ins on
+ * the response types, since the field names and order are fixed. Other mappers keep the bean serializer.
+ */
+public class ApiResponseSerializer extends StdSerializer<ApiResponse<?>> implements ContextualSerializer {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final SerializableString SUCCESS = new SerializedString("success");
+    private static final SerializableString MESSAGE = new SerializedString("message");
+    private static final SerializableString DATA = new SerializedString("data");
+    private static final SerializableString ERROR_CODE = new SerializedString("errorCode");
+    private static final SerializableString TIMESTAMP = new SerializedString("timestamp");
+    private static final SerializableString PATH = new SerializedString("path");
+
+    private static final Class<?>[] FIXED_TYPES = {
+            ApiResponse.class, PrerenderedErrorResponse.class, ErrorResponse.class
+    };
+
+    /**
+     * Serializer of LocalDateTime when it is not the default one, null to use TimestampCache
+     */
+    private final JsonSerializer<Object> timestampSerializer;
+
+    public ApiResponseSerializer() {
+        this(null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private ApiResponseSerializer(JsonSerializer<Object> timestampSerializer) {
+        super((Class<ApiResponse<?>>) (Class<?>) ApiResponse.class);
+        this.timestampSerializer = timestampSerializer;
+    }
+
+    /**
+     * Module replacing the bean serializer of ApiResponse and PrerenderedErrorResponse with this
+     * one, on mappers where both write the same field names
+     */
+    public static Module module() {
+        SimpleModule module = new SimpleModule(ApiResponseSerializer.class.getName());
+        module.setSerializerModifier(new BeanSerializerModifier() {
+            @Override
+            public JsonSerializer<?> modifySerializer(SerializationConfig config, BeanDescription beanDesc,
+                                                      JsonSerializer<?> serializer) {
+                Class<?> type = beanDesc.getBeanClass();
+                if ((type == ApiResponse.class || type == PrerenderedErrorResponse.class) && hasFixedNames(config)) {
+                    return new ApiResponseSerializer();
+                }
+                return serializer;
+            }
+        });
+        return module;
+    }
+
+    private static boolean hasFixedNames(SerializationConfig config) {
+        if (config.getPropertyNamingStrategy() != null || config.isEnabled(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)) {
+            return false;
+        }
+        for (Class<?> type : FIXED_TYPES) {
+            if (config.findMixInClassFor(type) != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property)
+            throws JsonMappingException {
+        JsonSerializer<Object> serializer = provider.findValueSerializer(LocalDateTime.class);
+        if ((Object) serializer == LocalDateTimeSerializer.INSTANCE
+                && provider.getDefaultPropertyFormat(LocalDateTime.class).equals(JsonFormat.Value.empty())) {
+            return this;
+        }
+        return new ApiResponseSerializer(provider.findValueSerializer(LocalDateTime.class, null));
+    }
+
+    @Override
+    public void serialize(ApiResponse<?> value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        if (value instanceof PrerenderedErrorResponse prerendered) {
+            prerendered.writeTo(gen, provider, this);
+            return;
+        }
+        gen.writeStartObject(value);
+        writeFields(value, gen, provider);
+        gen.writeEndObject();
+    }
+
+    @Override
+    public void serializeWithType(ApiResponse<?> value, JsonGenerator gen, SerializerProvider provider,
+                                  TypeSerializer typeSer) throws IOException {
+        WritableTypeId typeId = typeSer.writeTypePrefix(gen, typeSer.typeId(value, JsonToken.START_OBJECT));
+        writeFields(value, gen, provider);
+        typeSer.writeTypeSuffix(gen, typeId);
+    }
+
+    private void writeFields(ApiResponse<?> value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeFieldName(SUCCESS);
+        gen.writeBoolean(value.isSuccess());
+        if (value.getMessage() != null) {
+            gen.writeFieldName(MESSAGE);
+            gen.writeString(value.getMessage());
+        }
+        if (value.getData() != null) {
+            gen.writeFieldName(DATA);
+            provider.defaultSerializeValue(value.getData(), gen);
+        }
+        if (value.getErrorCode() != null) {
+            gen.writeFieldName(ERROR_CODE);
+            gen.writeString(value.getErrorCode());
+        }
+        if (value.getTimestamp() != null) {
+            gen.writeFieldName(TIMESTAMP);
+            writeTimestamp(value.getTimestamp(), gen, provider);
+        }
+        if (value.getPath() != null) {
+            gen.writeFieldName(PATH);
+            gen.writeString(value.getPath());
+        }
+    }
+
+    private void writeTimestamp(LocalDateTime timestamp, JsonGenerator gen, SerializerProvider provider)
+            throws IOException {
+        String formatted = formatTimestamp(timestamp, provider);
+        if (formatted != null) {
+            gen.writeString(formatted);
+        } else {
+            writeTimestampValue(timestamp, gen, provider);
+        }
+    }
+
+    /**
+     * ISO-8601 text of the timestamp, or null when it must be written by Jackson
+     */
+    String formatTimestamp(LocalDateTime timestamp, SerializerProvider provider) {
+        if (timestamp == null || timestampSerializer != null
+                || provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)) {
+            return null;
+        }
+        return TimestampCache.format(timestamp);
+    }
+
+    void writeTimestampValue(LocalDateTime timestamp, JsonGenerator gen, SerializerProvider provider)
+            throws IOException {
+        if (timestampSerializer != null) {
+            timestampSerializer.serialize(timestamp, gen, provider);
+        } else {
+            provider.defaultSerializeValue(timestamp, gen);
+        }
+    }
+
+    /**
+     * ISO_LOCAL_DATE_TIME rendering that formats the date and time of day once per second and only
+     * appends the fraction, trimmed as DateTimeFormatter would, on each call
+     */
+    static final class TimestampCache {
+
+        private static volatile Entry last = new Entry(Long.MIN_VALUE, "");
+
+        private TimestampCache() {
+        }
+
+        static String format(LocalDateTime timestamp) {
+            int year = timestamp.getYear();
+            if (year < 0 || year > 9999) {
+                return DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(timestamp);
+            }
+            long second = timestamp.toLocalDate().toEpochDay() * 86_400 + timestamp.toLocalTime().toSecondOfDay();
+            Entry entry = last;
+            if (entry.second != second) {
+                entry = new Entry(second, DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(timestamp.withNano(0)));
+                last = entry;
+            }
+            int nanos = timestamp.getNano();
+            if (nanos == 0) {
+                return entry.text;
+            }
+            int digits = 9;
+            while (nanos % 10 == 0) {
+                nanos /= 10;
+                digits--;
+            }
+            int length = entry.text.length();
+            char[] chars = new char[length + 1 + digits];
+            entry.text.getChars(0, length, chars, 0);
+            chars[length] = '.';
+            for (int i = length + digits; i > length; i--) {
+                chars[i] = (char) ('0' + nanos % 10);
+                nanos /= 10;
+            }
+            return new String(chars);
+        }
+
+        private static final class Entry {
+            private final long second;
+            private final String text;
+
+            private Entry(long second, String text) {
+                this.second = second;
+                this.text = text;
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.lyhorng.common.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Page of a keyset (cursor) paginated listing. Unlike PageResponse it carries no totals, so no
+ * count query is needed, and fetching a page costs the same however deep it is.
+ * Pass nextCursor back to get the following page; it is absent on the last page.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CursorPageResponse<T> {
+    
+    private List<T> content;
+    private int size;
+    private String nextCursor;
+    private boolean hasNext;
+    private boolean empty;
+    
+    public static <T> CursorPageResponse<T> of(List<T> content, int size, String nextCursor) {
+        return CursorPageResponse.<T>builder()
+                .content(content)
+                .size(size)
+                .nextCursor(nextCursor)
+                .hasNext(nextCursor != null)
+                .empty(content == null || content.isEmpty())
+                .build();
+    }
+}
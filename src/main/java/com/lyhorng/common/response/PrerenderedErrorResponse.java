@@ -0,0 +1,201 @@
+package com.lyhorng.common.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import com.lyhorng.common.exception.ErrorCode;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Error ApiResponse&lt;ErrorResponse&gt; whose constant parts are encoded once per ErrorCode.
+ *
+ * The error code, messages and status of each ErrorCode are kept as pre-encoded strings in a
+ * Template built once; a response only adds the path, details, field errors and a single
+ * timestamp, and ApiResponseSerializer writes it without building the ErrorResponse or going
+ * through bean introspection. The JSON is the same as for the equivalent
+ * ApiResponse&lt;ErrorResponse&gt;. getData() still returns an ErrorResponse, built on first access.
+ */
+public class PrerenderedErrorResponse extends ApiResponse<ErrorResponse> {
+
+    private static final SerializableString SUCCESS = new SerializedString("success");
+    private static final SerializableString MESSAGE = new SerializedString("message");
+    private static final SerializableString DATA = new SerializedString("data");
+    private static final SerializableString ERROR_CODE = new SerializedString("errorCode");
+    private static final SerializableString DETAILS = new SerializedString("details");
+    private static final SerializableString TIMESTAMP = new SerializedString("timestamp");
+    private static final SerializableString PATH = new SerializedString("path");
+    private static final SerializableString STATUS = new SerializedString("status");
+    private static final SerializableString FIELD_ERRORS = new SerializedString("fieldErrors");
+
+    private static final Map<ErrorCode, Template> TEMPLATES = new EnumMap<>(ErrorCode.class);
+
+    static {
+        for (ErrorCode errorCode : ErrorCode.values()) {
+            TEMPLATES.put(errorCode, new Template(errorCode, errorCode.getMessage()));
+        }
+    }
+
+    private final Template template;
+    private final String dataMessage;
+    private final String details;
+    private final List<ErrorResponse.FieldError> fieldErrors;
+
+    private PrerenderedErrorResponse(Template template, String dataMessage, String details, String path,
+                                     List<ErrorResponse.FieldError> fieldErrors) {
+        super(false, template.message, null, template.errorCode.getCode(), LocalDateTime.now(), path);
+        this.template = template;
+        this.dataMessage = dataMessage;
+        this.details = details;
+        this.fieldErrors = fieldErrors;
+    }
+
+    /**
+     * Template using the ErrorCode's message
+     */
+    public static Template template(ErrorCode errorCode) {
+        return TEMPLATES.get(errorCode);
+    }
+
+    /**
+     * Template with its own message; keep it in a constant so it is encoded only once
+     */
+    public static Template template(ErrorCode errorCode, String message) {
+        return new Template(errorCode, message);
+    }
+
+    public static PrerenderedErrorResponse of(ErrorCode errorCode, String details, String path) {
+        return new PrerenderedErrorResponse(template(errorCode), null, details, path, null);
+    }
+
+    public static PrerenderedErrorResponse of(Template template, String details, String path) {
+        return new PrerenderedErrorResponse(template, null, details, path, null);
+    }
+
+    /**
+     * @param dataMessage message of the nested ErrorResponse when it differs from the template's, or null
+     */
+    public static PrerenderedErrorResponse of(Template template, String dataMessage, String details, String path,
+                                              List<ErrorResponse.FieldError> fieldErrors) {
+        return new PrerenderedErrorResponse(template, dataMessage, details, path, fieldErrors);
+    }
+
+    @JsonIgnore
+    public ErrorCode getTemplateErrorCode() {
+        return template.errorCode;
+    }
+
+    @Override
+    public ErrorResponse getData() {
+        ErrorResponse data = super.getData();
+        if (data == null) {
+            data = ErrorResponse.builder()
+                    .errorCode(getErrorCode())
+                    .message(dataMessage != null ? dataMessage : template.message)
+                    .details(details)
+                    .timestamp(getTimestamp())
+                    .path(getPath())
+                    .status(template.status)
+                    .fieldErrors(fieldErrors)
+                    .build();
+            setData(data);
+        }
+        return data;
+    }
+
+    /**
+     * Write the envelope with the nested ErrorResponse, field for field as the bean serializers would
+     */
+    void writeTo(JsonGenerator gen, SerializerProvider provider, ApiResponseSerializer serializer) throws IOException {
+        String timestamp = serializer.formatTimestamp(getTimestamp(), provider);
+
+        gen.writeStartObject(this);
+        gen.writeFieldName(SUCCESS);
+        gen.writeBoolean(false);
+        gen.writeFieldName(MESSAGE);
+        gen.writeString(template.encodedMessage);
+
+        gen.writeFieldName(DATA);
+        gen.writeStartObject();
+        gen.writeFieldName(ERROR_CODE);
+        gen.writeString(template.encodedCode);
+        gen.writeFieldName(MESSAGE);
+        if (dataMessage != null) {
+            gen.writeString(dataMessage);
+        } else {
+            gen.writeString(template.encodedMessage);
+        }
+        if (details != null) {
+            gen.writeFieldName(DETAILS);
+            gen.writeString(details);
+        }
+        writeTimestamp(gen, provider, serializer, timestamp);
+        writePath(gen);
+        gen.writeFieldName(STATUS);
+        gen.writeNumber(template.status);
+        if (fieldErrors != null) {
+            gen.writeFieldName(FIELD_ERRORS);
+            provider.defaultSerializeValue(fieldErrors, gen);
+        }
+        gen.writeEndObject();
+
+        gen.writeFieldName(ERROR_CODE);
+        gen.writeString(template.encodedCode);
+        writeTimestamp(gen, provider, serializer, timestamp);
+        writePath(gen);
+        gen.writeEndObject();
+    }
+
+    private void writeTimestamp(JsonGenerator gen, SerializerProvider provider, ApiResponseSerializer serializer,
+                                String formatted) throws IOException {
+        if (getTimestamp() == null) {
+            return;
+        }
+        gen.writeFieldName(TIMESTAMP);
+        if (formatted != null) {
+            gen.writeString(formatted);
+        } else {
+            serializer.writeTimestampValue(getTimestamp(), gen, provider);
+        }
+    }
+
+    private void writePath(JsonGenerator gen) throws IOException {
+        if (getPath() != null) {
+            gen.writeFieldName(PATH);
+            gen.writeString(getPath());
+        }
+    }
+
+    /**
+     * Pre-encoded error code, message and status of an error response
+     */
+    public static final class Template {
+        private final ErrorCode errorCode;
+        private final String message;
+        private final int status;
+        private final SerializableString encodedCode;
+        private final SerializableString encodedMessage;
+
+        private Template(ErrorCode errorCode, String message) {
+            this.errorCode = errorCode;
+            this.message = message;
+            this.status = errorCode.getHttpStatus().value();
+            this.encodedCode = encoded(errorCode.getCode());
+            this.encodedMessage = encoded(message);
+        }
+
+        private static SerializableString encoded(String value) {
+            SerializedString encoded = new SerializedString(value);
+            encoded.asQuotedUTF8();
+            encoded.asQuotedChars();
+            return encoded;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.lyhorng.common.response;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.lyhorng.common.util.JsonUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * ApiResponse bodies whose list or page content is written element by element as it is read.
+ *
+ * The JSON is the same as for ApiResponse&lt;List&lt;T&gt;&gt; or ApiResponse&lt;PageResponse&lt;T&gt;&gt;,
+ * but neither the list nor the serialized body is held in memory: elements are serialized straight
+ * to the response, which is flushed after the first element and then every FLUSH_INTERVAL elements.
+ *
+ * The body is written on an MVC async thread after the controller returns. Pass a Supplier for
+ * streams that need an open transaction or connection (e.g. a JPA Stream), and open the
+ * transaction inside it; the stream is closed when writing ends. Once writing has started the
+ * status can no longer change, so a failure while reading elements aborts the response and
+ * leaves the body as incomplete JSON.
+ */
+public final class StreamingApiResponse {
+
+    private static final int FLUSH_INTERVAL = 256;
+
+    private StreamingApiResponse() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * 200 response streaming the elements as the data array
+     */
+    public static <T> ResponseEntity<StreamingResponseBody> list(Stream<T> elements) {
+        return list(null, () -> elements);
+    }
+
+    public static <T> ResponseEntity<StreamingResponseBody> list(String message, Supplier<? extends Stream<T>> elements) {
+        LocalDateTime timestamp = LocalDateTime.now();
+        return ok(out -> write(out, message, timestamp, elements, null));
+    }
+
+    /**
+     * 200 response streaming the elements as the content of a PageResponse. The totals are known
+     * up front, so the page fields are the same as PageResponse.of(content, pageNumber, pageSize, totalElements).
+     */
+    public static <T> ResponseEntity<StreamingResponseBody> page(Stream<T> elements, int pageNumber, int pageSize,
+                                                                 long totalElements) {
+        return page(null, () -> elements, pageNumber, pageSize, totalElements);
+    }
+
+    public static <T> ResponseEntity<StreamingResponseBody> page(String message, Supplier<? extends Stream<T>> elements,
+                                                                 int pageNumber, int pageSize, long totalElements) {
+        LocalDateTime timestamp = LocalDateTime.now();
+        PageInfo page = new PageInfo(pageNumber, pageSize, totalElements);
+        return ok(out -> write(out, message, timestamp, elements, page));
+    }
+
+    private static ResponseEntity<StreamingResponseBody> ok(StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    private static <T> void write(OutputStream out, String message, LocalDateTime timestamp,
+                                  Supplier<? extends Stream<T>> elements, PageInfo page) throws IOException {
+        ObjectMapper mapper = JsonUtils.getObjectMapper();
+        ObjectWriter writer = mapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(SerializationFeature.CLOSE_CLOSEABLE);
+        try (JsonGenerator gen = mapper.getFactory().createGenerator(out);
+             Stream<T> stream = elements.get()) {
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Closing after a failure must not complete the JSON, or a truncated list would look successful
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+            gen.writeStartObject();
+            gen.writeBooleanField("success", true);
+            if (message != null) {
+                gen.writeStringField("message", message);
+            }
+            gen.writeFieldName("data");
+            if (page != null) {
+                gen.writeStartObject();
+                gen.writeFieldName("content");
+            }
+
+            gen.writeStartArray();
+            long count = 0;
+            Iterator<T> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(gen, iterator.next());
+                count++;
+                if (count == 1 || count % FLUSH_INTERVAL == 0) {
+                    gen.flush();
+                }
+            }
+            gen.writeEndArray();
+
+            if (page != null) {
+                page.writeFields(gen, count == 0);
+                gen.writeEndObject();
+            }
+            gen.writeFieldName("timestamp");
+            writer.writeValue(gen, timestamp);
+            gen.writeEndObject();
+        }
+    }
+
+    private static final class PageInfo {
+        private final int pageNumber;
+        private final int pageSize;
+        private final long totalElements;
+
+        private PageInfo(int pageNumber, int pageSize, long totalElements) {
+            this.pageNumber = pageNumber;
+            this.pageSize = pageSize;
+            this.totalElements = totalElements;
+        }
+
+        private void writeFields(JsonGenerator gen, boolean empty) throws IOException {
+            int totalPages = (int) Math.ceil((double) totalElements / pageSize);
+            gen.writeNumberField("pageNumber", pageNumber);
+            gen.writeNumberField("pageSize", pageSize);
+            gen.writeNumberField("totalElements", totalElements);
+            gen.writeNumberField("totalPages", totalPages);
+            gen.writeBooleanField("first", pageNumber == 0);
+            gen.writeBooleanField("last", pageNumber >= totalPages - 1);
+            gen.writeBooleanField("empty", empty);
+        }
+    }
+}
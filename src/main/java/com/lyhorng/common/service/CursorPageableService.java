@@ -0,0 +1,32 @@
+package com.lyhorng.common.service;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.lyhorng.common.response.CursorPageResponse;
+import com.lyhorng.common.util.CursorUtils;
+
+/**
+ * Base service with keyset (cursor) pagination: no count query, and the cost of a page
+ * does not grow with its depth. Requires spring-data-commons on the classpath.
+ */
+public interface CursorPageableService<T, ID> extends BaseService<T, ID> {
+
+    /**
+     * Find a page of entities after the given cursor (null for the first page)
+     */
+    @Transactional(readOnly = true)
+    default CursorPageResponse<T> findAll(String cursor, int size) {
+        return CursorUtils.toResponse(scroll(CursorUtils.toScrollPosition(cursor), CursorUtils.pageSize(size)));
+    }
+
+    /**
+     * Fetch up to size entities after the position in a stable sort order ending with a unique key,
+     * typically with a repository method such as
+     * {@code findFirst20ByOrderByCreatedAtAscIdAsc(ScrollPosition)} or
+     * {@code findBy(spec, q -> q.sortBy(sort).limit(size).scroll(position))}
+     */
+    @Transactional(readOnly = true)
+    Window<T> scroll(KeysetScrollPosition position, int size);
+}
@@ -0,0 +1,63 @@
+package com.lyhorng.common.util;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Delay before the next retry attempt
+ */
+@FunctionalInterface
+public interface BackoffPolicy {
+
+    /**
+     * @param attempt Number of the attempt that just failed, starting at 1
+     * @param previousDelayMillis Delay used before that attempt, 0 for the first one
+     * @return Delay in milliseconds before the next attempt
+     */
+    long nextDelayMillis(int attempt, long previousDelayMillis);
+
+    /**
+     * Same delay before every attempt
+     */
+    static BackoffPolicy fixed(Duration delay) {
+        long millis = delay.toMillis();
+        return (attempt, previousDelayMillis) -> millis;
+    }
+
+    /**
+     * initial * multiplier^(attempt - 1), capped at max
+     */
+    static BackoffPolicy exponential(Duration initial, double multiplier, Duration max) {
+        long initialMillis = initial.toMillis();
+        long maxMillis = max.toMillis();
+        return (attempt, previousDelayMillis) -> {
+            double delay = initialMillis * Math.pow(multiplier, attempt - 1);
+            return delay >= maxMillis ? maxMillis : (long) delay;
+        };
+    }
+
+    /**
+     * Decorrelated jitter: a random delay between base and three times the previous delay, capped at max.
+     * Spreads out callers that failed at the same moment so they do not retry in lockstep.
+     */
+    static BackoffPolicy decorrelatedJitter(Duration base, Duration max) {
+        long baseMillis = base.toMillis();
+        long maxMillis = max.toMillis();
+        return (attempt, previousDelayMillis) -> {
+            long upper = Math.max(baseMillis, previousDelayMillis * 3);
+            long delay = upper > baseMillis ? ThreadLocalRandom.current().nextLong(baseMillis, upper + 1) : baseMillis;
+            return Math.min(delay, maxMillis);
+        };
+    }
+
+    /**
+     * Randomize each delay by up to +/- factor of its value (e.g. 0.2 for 20%)
+     */
+    default BackoffPolicy withJitter(double factor) {
+        return (attempt, previousDelayMillis) -> {
+            long delay = nextDelayMillis(attempt, previousDelayMillis);
+            long spread = (long) (delay * factor);
+            return spread > 0 ? delay + ThreadLocalRandom.current().nextLong(-spread, spread + 1) : delay;
+        };
+    }
+}
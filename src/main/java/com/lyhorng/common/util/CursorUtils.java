@@ -0,0 +1,184 @@
+package com.lyhorng.common.util;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+import com.lyhorng.common.constant.Constants;
+import com.lyhorng.common.exception.BusinessException;
+import com.lyhorng.common.exception.ErrorCode;
+import com.lyhorng.common.response.CursorPageResponse;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Opaque cursors for keyset pagination.
+ *
+ * A cursor holds the sort key values of the last row of a page, e.g. {createdAt, id}, with their
+ * types, as URL-safe Base64 JSON. Decoded into a KeysetScrollPosition it is turned by Spring Data
+ * into the keyset predicate ("createdAt &gt; ? OR (createdAt = ? AND id &gt; ?)") of the next query:
+ *
+ * <pre>
+ * Window&lt;Order&gt; window = orderRepository.findFirst20ByOrderByCreatedAtAscIdAsc(CursorUtils.toScrollPosition(cursor));
+ * return CursorUtils.toResponse(window);
+ * </pre>
+ *
+ * Supported key types: String, Integer, Long, BigDecimal, Double, Boolean, UUID, LocalDate,
+ * LocalDateTime, Instant and OffsetDateTime.
+ */
+public final class CursorUtils {
+
+    private static final TypeReference<LinkedHashMap<String, List<String>>> KEYS_TYPE = new TypeReference<>() {
+    };
+
+    private CursorUtils() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Encode sort key values into a cursor
+     *
+     * @throws IllegalArgumentException if a value is null or of an unsupported type
+     */
+    public static String encode(Map<String, ?> keys) {
+        Map<String, List<String>> typed = new LinkedHashMap<>();
+        keys.forEach((name, value) -> typed.put(name, List.of(typeCode(name, value), value.toString())));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(JsonUtils.toJsonBytes(typed));
+    }
+
+    /**
+     * Decode a cursor into its sort key values, restoring their types
+     *
+     * @throws BusinessException INVALID_INPUT if the cursor is malformed
+     */
+    public static Map<String, Object> decode(String cursor) {
+        Map<String, List<String>> typed;
+        try {
+            typed = JsonUtils.getObjectMapper().readValue(Base64.getUrlDecoder().decode(cursor), KEYS_TYPE);
+        } catch (IOException | IllegalArgumentException e) {
+            throw invalidCursor();
+        }
+        if (typed == null || typed.isEmpty()) {
+            throw invalidCursor();
+        }
+        Map<String, Object> keys = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> key : typed.entrySet()) {
+            List<String> value = key.getValue();
+            if (value == null || value.size() != 2 || value.get(0) == null || value.get(1) == null) {
+                throw invalidCursor();
+            }
+            keys.put(key.getKey(), parse(value.get(0), value.get(1)));
+        }
+        return keys;
+    }
+
+    /**
+     * Scroll position for the cursor; a null or blank cursor starts from the first row
+     *
+     * @throws BusinessException INVALID_INPUT if the cursor is malformed
+     */
+    public static KeysetScrollPosition toScrollPosition(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        return ScrollPosition.forward(decode(cursor));
+    }
+
+    /**
+     * Cursor for a keyset scroll position, null for the initial position
+     *
+     * @throws IllegalArgumentException if the position is not a keyset position
+     */
+    public static String fromScrollPosition(ScrollPosition position) {
+        if (!(position instanceof KeysetScrollPosition keyset)) {
+            throw new IllegalArgumentException("Cursors require a keyset scroll position, got " + position);
+        }
+        return keyset.isInitial() ? null : encode(keyset.getKeys());
+    }
+
+    /**
+     * Page of a window returned by a keyset-scrolling query, with the cursor of its last row
+     */
+    public static <T> CursorPageResponse<T> toResponse(Window<T> window) {
+        String nextCursor = window.hasNext() && !window.isEmpty()
+                ? fromScrollPosition(window.positionAt(window.size() - 1))
+                : null;
+        return CursorPageResponse.of(new ArrayList<>(window.getContent()), window.size(), nextCursor);
+    }
+
+    /**
+     * Page size limited to 1..MAX_PAGE_SIZE, DEFAULT_PAGE_SIZE when not positive
+     */
+    public static int pageSize(int size) {
+        return size <= 0 ? Constants.DEFAULT_PAGE_SIZE : Math.min(size, Constants.MAX_PAGE_SIZE);
+    }
+
+    private static String typeCode(String name, Object value) {
+        if (value instanceof String) {
+            return "S";
+        } else if (value instanceof Integer) {
+            return "I";
+        } else if (value instanceof Long) {
+            return "L";
+        } else if (value instanceof BigDecimal) {
+            return "N";
+        } else if (value instanceof Double) {
+            return "F";
+        } else if (value instanceof Boolean) {
+            return "B";
+        } else if (value instanceof UUID) {
+            return "U";
+        } else if (value instanceof LocalDate) {
+            return "D";
+        } else if (value instanceof LocalDateTime) {
+            return "T";
+        } else if (value instanceof Instant) {
+            return "A";
+        } else if (value instanceof OffsetDateTime) {
+            return "O";
+        }
+        throw new IllegalArgumentException("Unsupported cursor key type for '" + name + "': "
+                + (value == null ? "null" : value.getClass().getName()));
+    }
+
+    private static Object parse(String typeCode, String value) {
+        try {
+            switch (typeCode) {
+                case "S": return value;
+                case "I": return Integer.valueOf(value);
+                case "L": return Long.valueOf(value);
+                case "N": return new BigDecimal(value);
+                case "F": return Double.valueOf(value);
+                case "B": return Boolean.valueOf(value);
+                case "U": return UUID.fromString(value);
+                case "D": return LocalDate.parse(value);
+                case "T": return LocalDateTime.parse(value);
+                case "A": return Instant.parse(value);
+                case "O": return OffsetDateTime.parse(value);
+                default: throw invalidCursor();
+            }
+        } catch (RuntimeException e) {
+            if (e instanceof BusinessException) {
+                throw e;
+            }
+            throw invalidCursor();
+        }
+    }
+
+    private static BusinessException invalidCursor() {
+        return new BusinessException(ErrorCode.INVALID_INPUT, "Invalid cursor");
+    }
+}
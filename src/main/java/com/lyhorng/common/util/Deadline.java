@@ -0,0 +1,167 @@
+package com.lyhorng.common.util;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Point in time by which the current request must complete.
+ *
+ * The deadline of the current thread is set by DeadlineFilter from the X-Request-Timeout header,
+ * or programmatically with {@link #call(Deadline, Supplier)}. RetryUtil stops retrying once it
+ * has passed, and RestClientUtil shrinks connect/read timeouts to the remaining time and
+ * forwards it downstream. Tasks handed to other threads carry it with {@link #wrap(Runnable)}
+ * or {@link #propagating(Executor)}.
+ */
+public final class Deadline {
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Longest representable timeout; keeps deadline arithmetic on System.nanoTime() from overflowing
+     */
+    private static final long MAX_TIMEOUT_NANOS = Long.MAX_VALUE / 2;
+
+    private final long deadlineNanos;
+
+    private Deadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Deadline the given time from now. Timeouts beyond about 146 years are treated as that long.
+     */
+    public static Deadline after(Duration timeout) {
+        return new Deadline(System.nanoTime() + toNanosSaturated(timeout));
+    }
+
+    /**
+     * Deadline of the current thread, or null if none is set
+     */
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Set the deadline of the current thread; null clears it
+     */
+    public static void set(Deadline deadline) {
+        if (deadline == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(deadline);
+        }
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Run the supplier with the given deadline, restoring the previous one afterwards.
+     * An outer deadline that is earlier is kept.
+     */
+    public static <T> T call(Deadline deadline, Supplier<T> supplier) {
+        Deadline previous = CURRENT.get();
+        set(earliest(previous, deadline));
+        try {
+            return supplier.get();
+        } finally {
+            set(previous);
+        }
+    }
+
+    public static void run(Deadline deadline, Runnable runnable) {
+        call(deadline, () -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    /**
+     * Wrap a task so it runs with the deadline of the calling thread
+     */
+    public static Runnable wrap(Runnable runnable) {
+        Deadline deadline = current();
+        return deadline == null ? runnable : () -> run(deadline, runnable);
+    }
+
+    public static <T> Supplier<T> wrap(Supplier<T> supplier) {
+        Deadline deadline = current();
+        return deadline == null ? supplier : () -> call(deadline, supplier);
+    }
+
+    /**
+     * Executor that runs each task with the deadline of the thread submitting it
+     */
+    public static Executor propagating(Executor executor) {
+        return task -> executor.execute(wrap(task));
+    }
+
+    /**
+     * Earlier of two deadlines, either of which may be null
+     */
+    public static Deadline earliest(Deadline first, Deadline second) {
+        if (first == null) {
+            return second;
+        }
+        if (second == null) {
+            return first;
+        }
+        return first.deadlineNanos - second.deadlineNanos <= 0 ? first : second;
+    }
+
+    public boolean isExpired() {
+        return remainingNanos() <= 0;
+    }
+
+    /**
+     * Time left, negative once expired
+     */
+    public long remainingNanos() {
+        return deadlineNanos - System.nanoTime();
+    }
+
+    public long remainingMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(remainingNanos());
+    }
+
+    /**
+     * The timeout, shortened to the time left (at least 1ms).
+     * A null or zero timeout means no limit and yields the time left.
+     */
+    public Duration shrink(Duration timeout) {
+        long remaining = Math.max(remainingMillis(), 1);
+        if (timeout == null || timeout.isZero() || timeout.toMillis() > remaining) {
+            return Duration.ofMillis(remaining);
+        }
+        return timeout;
+    }
+
+    /**
+     * Millisecond variant of {@link #shrink(Duration)}; zero means no limit
+     */
+    public int shrinkMillis(int timeoutMillis) {
+        long remaining = Math.max(remainingMillis(), 1);
+        if (timeoutMillis <= 0 || timeoutMillis > remaining) {
+            return (int) Math.min(remaining, Integer.MAX_VALUE);
+        }
+        return timeoutMillis;
+    }
+
+    private static long toNanosSaturated(Duration timeout) {
+        if (timeout.getSeconds() >= MAX_TIMEOUT_NANOS / 1_000_000_000L) {
+            return MAX_TIMEOUT_NANOS;
+        }
+        if (timeout.getSeconds() <= -MAX_TIMEOUT_NANOS / 1_000_000_000L) {
+            return -MAX_TIMEOUT_NANOS;
+        }
+        return timeout.toNanos();
+    }
+
+    @Override
+    public String toString() {
+        return "Deadline[remaining=" + remainingMillis() + "ms]";
+    }
+}
@@ -0,0 +1,144 @@
+package com.lyhorng.common.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Utility class for creating executors suited to blocking I/O
+ */
+@Slf4j
+public class ExecutorUtils {
+
+    private ExecutorUtils() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Check if the running JVM supports virtual threads (JDK 21+)
+     */
+    public static boolean isVirtualThreadsSupported() {
+        return virtualThreadFactoryMethod() != null;
+    }
+
+    /**
+     * Create an executor for blocking I/O tasks.
+     * Uses a virtual-thread-per-task executor when preferred and supported,
+     * otherwise a bounded pool of daemon threads that runs tasks on the caller when saturated.
+     *
+     * @param threadNamePrefix Prefix for platform thread names
+     * @param maxThreads Maximum number of platform threads
+     * @param queueCapacity Maximum number of queued tasks before falling back to the caller thread
+     * @param preferVirtualThreads Use virtual threads when running on JDK 21+
+     */
+    public static ExecutorService newIoExecutor(String threadNamePrefix, int maxThreads,
+                                                int queueCapacity, boolean preferVirtualThreads) {
+        ExecutorService executor = preferVirtualThreads ? newVirtualThreadExecutor() : null;
+        return executor != null ? executor : newBoundedExecutor(threadNamePrefix, maxThreads, queueCapacity);
+    }
+
+    /**
+     * Create an executor for optional blocking I/O tasks that must never run on the caller.
+     * Like {@link #newIoExecutor}, but a saturated platform thread pool rejects tasks with
+     * RejectedExecutionException so the caller can skip them.
+     *
+     * @param threadNamePrefix Prefix for platform thread names
+     * @param maxThreads Maximum number of platform threads
+     * @param queueCapacity Maximum number of queued tasks before rejecting (0 for no queue)
+     * @param preferVirtualThreads Use virtual threads when running on JDK 21+
+     */
+    public static ExecutorService newRejectingIoExecutor(String threadNamePrefix, int maxThreads,
+                                                         int queueCapacity, boolean preferVirtualThreads) {
+        ExecutorService executor = preferVirtualThreads ? newVirtualThreadExecutor() : null;
+        if (executor != null) {
+            return executor;
+        }
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                maxThreads,
+                maxThreads,
+                60L, TimeUnit.SECONDS,
+                queueCapacity > 0 ? new ArrayBlockingQueue<>(queueCapacity) : new SynchronousQueue<>(),
+                daemonThreadFactory(threadNamePrefix),
+                new ThreadPoolExecutor.AbortPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /**
+     * Create an executor that never queues, rejects or runs tasks on the caller: a virtual-thread-per-task
+     * executor when preferred and supported, otherwise a cached pool of daemon threads that grows as
+     * needed and releases threads idle for 60 seconds. For tasks whose submitter must not block, such as
+     * the internal tasks of java.net.http.HttpClient.
+     *
+     * @param threadNamePrefix Prefix for platform thread names
+     * @param preferVirtualThreads Use virtual threads when running on JDK 21+
+     */
+    public static ExecutorService newUnboundedIoExecutor(String threadNamePrefix, boolean preferVirtualThreads) {
+        ExecutorService executor = preferVirtualThreads ? newVirtualThreadExecutor() : null;
+        if (executor != null) {
+            return executor;
+        }
+        return new ThreadPoolExecutor(
+                0,
+                Integer.MAX_VALUE,
+                60L, TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                daemonThreadFactory(threadNamePrefix));
+    }
+
+    /**
+     * Create a bounded pool of daemon threads that runs tasks on the caller when saturated
+     */
+    public static ExecutorService newBoundedExecutor(String threadNamePrefix, int maxThreads, int queueCapacity) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                maxThreads,
+                maxThreads,
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                daemonThreadFactory(threadNamePrefix),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Create a thread factory producing named daemon threads
+     */
+    public static ThreadFactory daemonThreadFactory(String threadNamePrefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, threadNamePrefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static ExecutorService newVirtualThreadExecutor() {
+        Method factory = virtualThreadFactoryMethod();
+        if (factory == null) {
+            return null;
+        }
+        try {
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            log.warn("Unable to create virtual thread executor, using platform threads: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static Method virtualThreadFactoryMethod() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
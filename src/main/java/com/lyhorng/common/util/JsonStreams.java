@@ -0,0 +1,188 @@
+package com.lyhorng.common.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Utility class for incremental (streaming) JSON reading and writing.
+ * Elements are parsed or written one at a time with Jackson's streaming parser and generator,
+ * so memory use does not depend on the size of the document.
+ */
+public class JsonStreams {
+
+    private JsonStreams() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Iterate over the elements of a root-level JSON array, or over a sequence of
+     * root-level values (e.g. NDJSON). Closing the iterator closes the input.
+     *
+     * @param objectMapper Mapper used to bind each element
+     * @param input JSON input, consumed lazily
+     * @param elementType Type of each element
+     */
+    public static <T> MappingIterator<T> iterator(ObjectMapper objectMapper, InputStream input,
+                                                  JavaType elementType) throws IOException {
+        return objectMapper.readerFor(elementType).readValues(input);
+    }
+
+    /**
+     * Lazily stream the elements of a root-level JSON array, or a sequence of root-level values.
+     * The returned stream must be closed (try-with-resources) to release the input.
+     *
+     * @throws UncheckedIOException while consuming the stream if the input cannot be read or parsed
+     */
+    public static <T> Stream<T> stream(ObjectMapper objectMapper, InputStream input,
+                                       JavaType elementType) throws IOException {
+        return stream(objectMapper, input, elementType, UncheckedIOException::new);
+    }
+
+    /**
+     * Lazily stream the elements of a root-level JSON array, or a sequence of root-level values,
+     * translating read and parse failures during consumption with the given function.
+     * The returned stream must be closed (try-with-resources) to release the input.
+     */
+    public static <T> Stream<T> stream(ObjectMapper objectMapper, InputStream input, JavaType elementType,
+                                       Function<IOException, ? extends RuntimeException> errorTranslator)
+            throws IOException {
+        return stream(objectMapper.readerFor(elementType), input, errorTranslator);
+    }
+
+    /**
+     * Lazily stream the elements read by the given reader (bound to the element type).
+     * The returned stream must be closed (try-with-resources) to release the input.
+     */
+    public static <T> Stream<T> stream(ObjectReader elementReader, InputStream input,
+                                       Function<IOException, ? extends RuntimeException> errorTranslator)
+            throws IOException {
+        MappingIterator<T> iterator = elementReader.with(JsonParser.Feature.AUTO_CLOSE_SOURCE).readValues(input);
+        return toStream(new TranslatingIterator<>(iterator, errorTranslator))
+                .onClose(() -> closeQuietly(iterator, errorTranslator));
+    }
+
+    /**
+     * Lazily stream the elements of a file holding a JSON array or NDJSON.
+     * The file is read through a channel-backed stream in parser-sized chunks, so files larger
+     * than the heap (or than 2 GB, the limit of a single memory mapping) can be processed.
+     * The returned stream must be closed (try-with-resources) to close the file.
+     */
+    public static <T> Stream<T> stream(ObjectReader elementReader, Path path,
+                                       Function<IOException, ? extends RuntimeException> errorTranslator)
+            throws IOException {
+        InputStream input = Files.newInputStream(path);
+        try {
+            return stream(elementReader, input, errorTranslator);
+        } catch (IOException | RuntimeException e) {
+            input.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Write the elements as one JSON array, serializing each as it is taken from the iterator.
+     * The output is flushed but not closed.
+     */
+    public static void writeArray(ObjectWriter writer, OutputStream output, Iterator<?> elements) throws IOException {
+        try (SequenceWriter sequence = writer.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .writeValuesAsArray(output)) {
+            write(sequence, elements);
+        }
+        output.flush();
+    }
+
+    /**
+     * Write the elements as NDJSON, one value per line. The output is flushed but not closed.
+     */
+    public static void writeLines(ObjectWriter writer, OutputStream output, Iterator<?> elements) throws IOException {
+        long written;
+        try (SequenceWriter sequence = writer.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n")
+                .writeValues(output)) {
+            written = write(sequence, elements);
+        }
+        if (written > 0) {
+            output.write('\n');
+        }
+        output.flush();
+    }
+
+    /**
+     * Wrap an iterator in a sequential, ordered stream. Elements may be null, as JSON arrays can hold nulls
+     */
+    public static <T> Stream<T> toStream(Iterator<T> iterator) {
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED),
+                false);
+    }
+
+    private static long write(SequenceWriter sequence, Iterator<?> elements) throws IOException {
+        long written = 0;
+        while (elements.hasNext()) {
+            sequence.write(elements.next());
+            written++;
+        }
+        return written;
+    }
+
+    private static void closeQuietly(MappingIterator<?> iterator,
+                                     Function<IOException, ? extends RuntimeException> errorTranslator) {
+        try {
+            iterator.close();
+        } catch (IOException e) {
+            throw errorTranslator.apply(e);
+        }
+    }
+
+    /**
+     * Rethrows checked read and parse failures through the error translator
+     */
+    private static final class TranslatingIterator<T> implements Iterator<T> {
+
+        private final MappingIterator<T> delegate;
+        private final Function<IOException, ? extends RuntimeException> errorTranslator;
+
+        private TranslatingIterator(MappingIterator<T> delegate,
+                                    Function<IOException, ? extends RuntimeException> errorTranslator) {
+            this.delegate = delegate;
+            this.errorTranslator = errorTranslator;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                return delegate.hasNextValue();
+            } catch (IOException e) {
+                throw errorTranslator.apply(e);
+            }
+        }
+
+        @Override
+        public T next() {
+            try {
+                return delegate.nextValue();
+            } catch (IOException e) {
+                throw errorTranslator.apply(e);
+            }
+        }
+    }
+}
@@ -1,102 +1,428 @@
 package com.lyhorng.common.util;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonPointer;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.filter.FilteringParserDelegate;
+import com.fasterxml.jackson.core.filter.JsonPointerBasedFilter;
+import com.fasterxml.jackson.core.filter.TokenFilter;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
+/**
+ * JSON conversion helpers backed by the application's ObjectMapper.
+ *
+ * Until CommonConfig installs the Spring-managed mapper, a mapper with the same settings
+ * (Java time support, ISO dates, lenient unknown properties) is used. An ObjectReader and
+ * ObjectWriter is built once per target type and reused, so each call skips the mapper's
+ * root (de)serializer lookup. The fromJson and write overloads taking an InputStream or
+ * OutputStream never close it; streamJson(InputStream) takes ownership of its input and closes
+ * it when the returned stream is closed.
+ */
 @Slf4j
 public class JsonUtils {
-    
-    private static final ObjectMapper objectMapper = new ObjectMapper();
-    
+
+    private static volatile Mappers mappers = new Mappers(defaultObjectMapperBuilder().build());
+
     private JsonUtils() {
         throw new IllegalStateException("Utility class");
     }
-    
+
+    /**
+     * Builder with the library's default JSON settings, shared with CommonConfig.objectMapper()
+     */
+    public static Jackson2ObjectMapperBuilder defaultObjectMapperBuilder() {
+        return Jackson2ObjectMapperBuilder.json()
+                .modules(new JavaTimeModule())
+                .featuresToDisable(
+                        SerializationFeature.WRITE_DATES_AS_TIMESTAMPS,
+                        DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES
+                )
+                .featuresToEnable(
+                        DeserializationFeature.ACCEPT_EMPTY_STRING_AS_NULL_OBJECT
+                );
+    }
+
+    /**
+     * Use the given mapper for all conversions, discarding cached readers and writers
+     */
+    public static void setObjectMapper(ObjectMapper objectMapper) {
+        mappers = new Mappers(objectMapper);
+    }
+
+    public static ObjectMapper getObjectMapper() {
+        return mappers.objectMapper;
+    }
+
     public static String toJson(Object obj) {
         if (obj == null) {
             return null;
         }
         try {
-            return objectMapper.writeValueAsString(obj);
+            return mappers.writer(obj.getClass()).writeValueAsString(obj);
         } catch (JsonProcessingException e) {
             log.error("Error converting object to JSON: {}", e.getMessage(), e);
             return null;
         }
     }
-    
+
+    /**
+     * Serialize to UTF-8 bytes without an intermediate String
+     */
+    public static byte[] toJsonBytes(Object obj) {
+        if (obj == null) {
+            return null;
+        }
+        try {
+            return mappers.writer(obj.getClass()).writeValueAsBytes(obj);
+        } catch (JsonProcessingException e) {
+            log.error("Error converting object to JSON: {}", e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Serialize directly to the stream
+     *
+     * @return false if the object could not be written
+     */
+    public static boolean writeJson(OutputStream out, Object obj) {
+        try {
+            mappers.writer(obj == null ? Object.class : obj.getClass()).writeValue(out, obj);
+            return true;
+        } catch (IOException e) {
+            log.error("Error writing object as JSON: {}", e.getMessage(), e);
+            return false;
+        }
+    }
+
     public static String toJsonPretty(Object obj) {
         if (obj == null) {
             return null;
         }
         try {
-            return objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(obj);
+            return mappers.prettyWriter.writeValueAsString(obj);
         } catch (JsonProcessingException e) {
             log.error("Error converting object to pretty JSON: {}", e.getMessage(), e);
             return null;
         }
     }
-    
+
     public static <T> T fromJson(String json, Class<T> clazz) {
         if (json == null || json.isEmpty()) {
             return null;
         }
         try {
-            return objectMapper.readValue(json, clazz);
+            return mappers.reader(clazz).readValue(json);
         } catch (IOException e) {
             log.error("Error parsing JSON to object: {}", e.getMessage(), e);
             return null;
         }
     }
-    
+
     public static <T> T fromJson(String json, TypeReference<T> typeReference) {
         if (json == null || json.isEmpty()) {
             return null;
         }
         try {
-            return objectMapper.readValue(json, typeReference);
+            return mappers.reader(typeReference).readValue(json);
         } catch (IOException e) {
             log.error("Error parsing JSON to object: {}", e.getMessage(), e);
             return null;
         }
     }
-    
+
+    /**
+     * Parse UTF-8 (or UTF-16/32, auto-detected) bytes without decoding them to a String first
+     */
+    public static <T> T fromJson(byte[] json, Class<T> clazz) {
+        if (json == null || json.length == 0) {
+            return null;
+        }
+        try {
+            return mappers.reader(clazz).readValue(json);
+        } catch (IOException e) {
+            log.error("Error parsing JSON to object: {}", e.getMessage(), e);
+            return null;
+        }
+    }
+
+    public static <T> T fromJson(byte[] json, TypeReference<T> typeReference) {
+        if (json == null || json.length == 0) {
+            return null;
+        }
+        try {
+            return mappers.reader(typeReference).readValue(json);
+        } catch (IOException e) {
+            log.error("Error parsing JSON to object: {}", e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Parse directly from the stream
+     */
+    public static <T> T fromJson(InputStream json, Class<T> clazz) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return mappers.reader(clazz).readValue(json);
+        } catch (IOException e) {
+            log.error("Error parsing JSON to object: {}", e.getMessage(), e);
+            return null;
+        }
+    }
+
+    public static <T> T fromJson(InputStream json, TypeReference<T> typeReference) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return mappers.reader(typeReference).readValue(json);
+        } catch (IOException e) {
+            log.error("Error parsing JSON to object: {}", e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Lazily stream the elements of a file holding a JSON array or NDJSON, one element in memory
+     * at a time. The returned stream must be closed (try-with-resources) to close the file.
+     *
+     * @throws UncheckedIOException if the file cannot be opened, or while consuming the stream
+     *                              if it cannot be read or parsed
+     */
+    public static <T> Stream<T> streamJson(Path path, Class<T> elementType) {
+        try {
+            return JsonStreams.stream(mappers.reader(elementType), path, UncheckedIOException::new);
+        } catch (IOException e) {
+            log.error("Error opening JSON file {}: {}", path, e.getMessage(), e);
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static <T> Stream<T> streamJson(Path path, TypeReference<T> elementType) {
+        try {
+            return JsonStreams.stream(mappers.reader(elementType), path, UncheckedIOException::new);
+        } catch (IOException e) {
+            log.error("Error opening JSON file {}: {}", path, e.getMessage(), e);
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Lazily stream the elements of a JSON array or NDJSON input.
+     * Closing the returned stream closes the input.
+     */
+    public static <T> Stream<T> streamJson(InputStream input, Class<T> elementType) {
+        try {
+            return JsonStreams.stream(mappers.reader(elementType), input, UncheckedIOException::new);
+        } catch (IOException e) {
+            log.error("Error reading JSON stream: {}", e.getMessage(), e);
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static <T> Stream<T> streamJson(InputStream input, TypeReference<T> elementType) {
+        try {
+            return JsonStreams.stream(mappers.reader(elementType), input, UncheckedIOException::new);
+        } catch (IOException e) {
+            log.error("Error reading JSON stream: {}", e.getMessage(), e);
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Write the elements as one JSON array without building the document in memory.
+     * The stream of elements is consumed but not closed; the output is flushed but not closed.
+     *
+     * @return false if the elements could not be written
+     */
+    public static boolean writeJsonArray(OutputStream out, Stream<?> elements) {
+        return writeJsonArray(out, elements.iterator());
+    }
+
+    public static boolean writeJsonArray(OutputStream out, Iterator<?> elements) {
+        try {
+            JsonStreams.writeArray(mappers.objectMapper.writer(), out, elements);
+            return true;
+        } catch (IOException e) {
+            log.error("Error writing JSON array: {}", e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Write the elements as NDJSON, one value per line, without building the document in memory
+     *
+     * @return false if the elements could not be written
+     */
+    public static boolean writeNdjson(OutputStream out, Stream<?> elements) {
+        return writeNdjson(out, elements.iterator());
+    }
+
+    public static boolean writeNdjson(OutputStream out, Iterator<?> elements) {
+        try {
+            JsonStreams.writeLines(mappers.objectMapper.writer(), out, elements);
+            return true;
+        } catch (IOException e) {
+            log.error("Error writing NDJSON: {}", e.getMessage(), e);
+            return false;
+        }
+    }
+
     public static <T> T convertValue(Object fromValue, Class<T> toValueType) {
         if (fromValue == null) {
             return null;
         }
         try {
-            return objectMapper.convertValue(fromValue, toValueType);
+            return mappers.objectMapper.convertValue(fromValue, toValueType);
         } catch (IllegalArgumentException e) {
             log.error("Error converting value: {}", e.getMessage(), e);
             return null;
         }
     }
-    
+
     public static <T> T convertValue(Object fromValue, TypeReference<T> toValueTypeRef) {
         if (fromValue == null) {
             return null;
         }
         try {
-            return objectMapper.convertValue(fromValue, toValueTypeRef);
+            return mappers.objectMapper.convertValue(fromValue, toValueTypeRef);
         } catch (IllegalArgumentException e) {
             log.error("Error converting value: {}", e.getMessage(), e);
             return null;
         }
     }
-    
+
+    /**
+     * Whether the text is a single well-formed JSON value. Tokens are scanned and discarded,
+     * no tree is built. Trailing content is accepted unless the mapper enables FAIL_ON_TRAILING_TOKENS.
+     */
     public static boolean isValidJson(String json) {
         if (json == null || json.isEmpty()) {
             return false;
         }
-        try {
-            objectMapper.readTree(json);
-            return true;
+        ObjectMapper objectMapper = mappers.objectMapper;
+        try (JsonParser parser = objectMapper.getFactory().createParser(json)) {
+            if (parser.nextToken() == null) {
+                return false;
+            }
+            parser.skipChildren();
+            return !objectMapper.isEnabled(DeserializationFeature.FAIL_ON_TRAILING_TOKENS)
+                    || parser.nextToken() == null;
         } catch (IOException e) {
             return false;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Read the value at a JSON Pointer (RFC 6901), e.g. "/data/id" or "/items/0/name", without
+     * parsing the rest of the document: tokens before the match are skipped and parsing stops
+     * once the value has been read.
+     *
+     * @return the value, or null if the pointer does not resolve or the JSON is malformed
+     * @throws IllegalArgumentException if the pointer is not a valid JSON Pointer
+     */
+    public static <T> T extract(String json, String pointer, Class<T> clazz) {
+        if (json == null || json.isEmpty()) {
+            return null;
+        }
+        JsonPointer jsonPointer = JsonPointer.compile(pointer);
+        try (JsonParser parser = pointerParser(json, jsonPointer)) {
+            return parser.nextToken() != null ? mappers.reader(clazz).readValue(parser) : null;
+        } catch (IOException e) {
+            log.error("Error extracting {} from JSON: {}", pointer, e.getMessage(), e);
+            return null;
+        }
+    }
+
+    public static <T> T extract(String json, String pointer, TypeReference<T> typeReference) {
+        if (json == null || json.isEmpty()) {
+            return null;
+        }
+        JsonPointer jsonPointer = JsonPointer.compile(pointer);
+        try (JsonParser parser = pointerParser(json, jsonPointer)) {
+            return parser.nextToken() != null ? mappers.reader(typeReference).readValue(parser) : null;
+        } catch (IOException e) {
+            log.error("Error extracting {} from JSON: {}", pointer, e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Parser exposing only the first value matching the pointer; the empty pointer is the whole document
+     */
+    private static JsonParser pointerParser(String json, JsonPointer pointer) throws IOException {
+        JsonParser parser = mappers.objectMapper.getFactory().createParser(json);
+        if (pointer.matches()) {
+            return parser;
+        }
+        return new FilteringParserDelegate(parser, new JsonPointerBasedFilter(pointer),
+                TokenFilter.Inclusion.ONLY_INCLUDE_ALL, false);
+    }
+
+    /**
+     * A mapper with its cached readers and writers, replaced as a whole by setObjectMapper
+     */
+    private static final class Mappers {
+
+        private final ObjectMapper objectMapper;
+        private final ObjectWriter prettyWriter;
+        private final ConcurrentHashMap<Type, ObjectReader> readers = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+        private Mappers(ObjectMapper objectMapper) {
+            this.objectMapper = objectMapper;
+            this.prettyWriter = objectMapper.writerWithDefaultPrettyPrinter()
+                    .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        private ObjectReader reader(Class<?> type) {
+            ObjectReader reader = readers.get(type);
+            if (reader == null) {
+                reader = readers.computeIfAbsent(type, t -> objectMapper.readerFor(type)
+                        .without(JsonParser.Feature.AUTO_CLOSE_SOURCE));
+            }
+            return reader;
+        }
+
+        private ObjectReader reader(TypeReference<?> typeReference) {
+            Type type = typeReference.getType();
+            ObjectReader reader = readers.get(type);
+            if (reader == null) {
+                reader = readers.computeIfAbsent(type, t -> objectMapper.readerFor(typeReference)
+                        .without(JsonParser.Feature.AUTO_CLOSE_SOURCE));
+            }
+            return reader;
+        }
+
+        private ObjectWriter writer(Class<?> type) {
+            ObjectWriter writer = writers.get(type);
+            if (writer == null) {
+                writer = writers.computeIfAbsent(type, t -> objectMapper.writerFor(type)
+                        .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET));
+            }
+            return writer;
+        }
+    }
+}
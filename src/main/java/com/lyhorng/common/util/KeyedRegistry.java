@@ -0,0 +1,64 @@
+package com.lyhorng.common.util;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Holds one component per key (a host, an operation name, ...), created on first use from
+ * per-key or default settings
+ *
+ * @param <T> Component type
+ * @param <C> Settings type
+ */
+public abstract class KeyedRegistry<T, C> {
+
+    private final ConcurrentHashMap<String, T> components = new ConcurrentHashMap<>();
+    private final CopyOnWriteArrayList<Consumer<T>> listeners = new CopyOnWriteArrayList<>();
+    private final C defaultConfig;
+    private final Map<String, C> keyConfigs;
+
+    /**
+     * @param defaultConfig Settings for keys without specific settings
+     * @param keyConfigs Settings per key
+     */
+    protected KeyedRegistry(C defaultConfig, Map<String, C> keyConfigs) {
+        this.defaultConfig = defaultConfig;
+        this.keyConfigs = keyConfigs == null ? Map.of() : Map.copyOf(keyConfigs);
+    }
+
+    /**
+     * Create the component for a key
+     */
+    protected abstract T create(String key, C config);
+
+    /**
+     * The component of the key, created on first use
+     */
+    protected T get(String key) {
+        T component = components.get(key);
+        if (component != null) {
+            return component;
+        }
+        return components.computeIfAbsent(key, k -> {
+            T created = create(k, keyConfigs.getOrDefault(k, defaultConfig));
+            listeners.forEach(listener -> listener.accept(created));
+            return created;
+        });
+    }
+
+    public Collection<T> getAll() {
+        return Collections.unmodifiableCollection(components.values());
+    }
+
+    /**
+     * Register a callback for each component, existing and future (e.g. to bind metrics)
+     */
+    public void onCreate(Consumer<T> listener) {
+        listeners.add(listener);
+        components.values().forEach(listener);
+    }
+}
@@ -0,0 +1,87 @@
+package com.lyhorng.common.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free budget allowing extra work (retries, hedged requests) to be at most a fixed
+ * percentage of regular work.
+ *
+ * Every regular request deposits ratio of a token, up to a maximum balance; every extra
+ * attempt withdraws a whole token and is refused when the balance is insufficient.
+ * The balance is kept in thousandths of a token in a single AtomicLong.
+ */
+public class RatioBudget {
+
+    private static final long TOKEN = 1000;
+
+    private final long depositPerRequest;
+    private final long maxBalance;
+    private final AtomicLong balance;
+    private final LongAdder deposits = new LongAdder();
+    private final LongAdder withdrawals = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    /**
+     * @param percent Extra work allowed as a percentage of regular requests (e.g. 10)
+     * @param maxTokens Maximum number of extra attempts that can be saved up for a burst
+     */
+    public RatioBudget(double percent, int maxTokens) {
+        this.depositPerRequest = Math.round(percent * TOKEN / 100);
+        this.maxBalance = maxTokens * TOKEN;
+        this.balance = new AtomicLong(maxBalance);
+    }
+
+    /**
+     * Record a regular request, adding to the budget
+     */
+    public void deposit() {
+        deposits.increment();
+        long current;
+        long next;
+        do {
+            current = balance.get();
+            if (current >= maxBalance) {
+                return;
+            }
+            next = Math.min(current + depositPerRequest, maxBalance);
+        } while (!balance.compareAndSet(current, next));
+    }
+
+    /**
+     * Try to spend one token for an extra attempt
+     *
+     * @return false if the budget is exhausted
+     */
+    public boolean tryWithdraw() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < TOKEN) {
+                rejections.increment();
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - TOKEN));
+        withdrawals.increment();
+        return true;
+    }
+
+    /**
+     * Whole tokens currently available
+     */
+    public double getAvailableTokens() {
+        return (double) balance.get() / TOKEN;
+    }
+
+    public long getDeposits() {
+        return deposits.sum();
+    }
+
+    public long getWithdrawals() {
+        return withdrawals.sum();
+    }
+
+    public long getRejections() {
+        return rejections.sum();
+    }
+}
@@ -1,23 +1,89 @@
 package com.lyhorng.common.util;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.client.ResponseErrorHandler;
 import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestClientResponseException;
 import org.springframework.web.client.RestTemplate;
 
+import com.lyhorng.common.client.HedgingPolicy;
+import com.lyhorng.common.client.RequestCoalescer;
+import com.lyhorng.common.client.RequestKeys;
+import com.lyhorng.common.client.ResponseCache;
+import com.lyhorng.common.client.RestClientMetrics;
+import com.lyhorng.common.client.UrlTemplate;
+import com.lyhorng.common.constant.Constants;
 import com.lyhorng.common.exception.BusinessException;
 import com.lyhorng.common.exception.ErrorCode;
 
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Slf4j
 public class RestClientUtil {
     
+    private static final MediaType JSON_FALLBACK = MediaType.parseMediaType("application/json;q=0.9");
+    
     private final RestTemplate restTemplate;
+    private final Executor executor;
+    private volatile RequestCoalescer requestCoalescer;
+    private volatile ResponseCache responseCache;
+    private volatile HedgingPolicy hedgingPolicy;
+    private volatile Executor hedgingExecutor;
+    private volatile RestClientMetrics metrics;
+    private volatile ObjectMapper objectMapper;
+    private volatile MediaType preferredMediaType;
+    private final ConcurrentHashMap<Class<?>, Boolean> binaryBodyTypes = new ConcurrentHashMap<>();
     
     public RestClientUtil(RestTemplate restTemplate) {
+        this(restTemplate, DefaultExecutorHolder.EXECUTOR);
+    }
+    
+    /**
+     * @param restTemplate RestTemplate used for all calls
+     * @param executor Executor running the *Async variants; tasks inherit the caller's Deadline
+     */
+    public RestClientUtil(RestTemplate restTemplate, Executor executor) {
         this.restTemplate = restTemplate;
+        this.executor = Deadline.propagating(executor);
+    }
+    
+    /**
+     * Compiled URL template, parsed on first use and cached.
+     * Expand it and pass the resulting URI to the URI overloads, e.g.
+     * {@code restClientUtil.get(RestClientUtil.template("https://api/users/{id}").expand(id), null, User.class)}
+     */
+    public static UrlTemplate template(String template) {
+        UrlTemplate compiled = TemplateCache.TEMPLATES.get(template);
+        if (compiled == null) {
+            compiled = UrlTemplate.compile(template);
+            if (TemplateCache.TEMPLATES.size() < TemplateCache.MAX_CACHED_TEMPLATES) {
+                TemplateCache.TEMPLATES.putIfAbsent(template, compiled);
+            }
+        }
+        return compiled;
     }
     
     public <T> T get(String url, Class<T> responseType) {
@@ -29,24 +95,189 @@ public class RestClientUtil {
     }
     
     public <T> T get(String url, Map<String, String> headers, Map<String, Object> params, Class<T> responseType) {
+        return get(buildUrlWithParams(url, params), headers, responseType);
+    }
+    
+    /**
+     * GET an already encoded URI, e.g. one expanded from a {@link #template(String)}
+     */
+    public <T> T get(URI uri, Map<String, String> headers, Class<T> responseType) {
+        URI fullUri = absolute(uri);
+        RequestCoalescer coalescer = this.requestCoalescer;
+        if (coalescer != null) {
+            return coalescer.execute(coalescer.key(fullUri.toString(), headers, responseType),
+                    () -> cachedGet(fullUri, headers, responseType));
+        }
+        return cachedGet(fullUri, headers, responseType);
+    }
+    
+    private <T> T cachedGet(URI fullUrl, Map<String, String> headers, Class<T> responseType) {
+        ResponseCache cache = this.responseCache;
+        if (cache == null) {
+            return fetch(fullUrl, createHeaders(headers), responseType).getBody();
+        }
+        
+        String key = cache.key(fullUrl.toString(), headers, responseType);
+        String host = RequestKeys.host(fullUrl);
+        ResponseCache.Entry entry = cache.get(key);
+        if (entry != null && entry.isFresh()) {
+            cache.hit(host);
+            return entry.getBody();
+        }
+        
+        HttpHeaders httpHeaders = createHeaders(headers);
+        if (entry != null && entry.hasValidators()) {
+            cache.addValidators(entry, httpHeaders);
+        }
+        
+        ResponseEntity<T> response = fetch(fullUrl, httpHeaders, responseType);
+        if (entry != null && response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+            log.debug("GET {} not modified, using cached response", fullUrl);
+            cache.revalidated(entry, host, response.getHeaders());
+            return entry.getBody();
+        }
+        
+        cache.store(key, host, response);
+        return response.getBody();
+    }
+    
+    private <T> ResponseEntity<T> fetch(URI fullUrl, HttpHeaders httpHeaders, Class<T> responseType) {
+        HedgingPolicy hedging = this.hedgingPolicy;
+        if (hedging == null) {
+            return doGet(fullUrl, httpHeaders, responseType);
+        }
+        return hedged(hedging, RequestKeys.host(fullUrl), () -> doGet(fullUrl, httpHeaders, responseType));
+    }
+    
+    /**
+     * Run the call on the hedging executor and, if it has not completed within the host's hedge delay
+     * and the hedge budget allows, send a second attempt. The first successful response wins
+     * and the other attempt is cancelled; the call fails only when every attempt has failed.
+     * No hedge is sent once the primary has failed or when the hedging executor is saturated,
+     * and the call runs on the caller thread without a hedge if the primary cannot be submitted.
+     * <p>
+     * Cancelling the losing attempt interrupts its thread, but a blocking socket read does not
+     * react to interrupts: the loser keeps its pooled connection until its response arrives or
+     * the read timeout (common.rest-client.read-timeout, or the shorter remaining Deadline) expires.
+     */
+    private <T> T hedged(HedgingPolicy hedging, String host, Supplier<T> call) {
+        hedging.onRequest();
+        HedgedCall<T> hedgedCall = new HedgedCall<>();
+        FutureTask<Void> primary = attempt(hedging, host, call, hedgedCall, false);
+        try {
+            hedgingExecutor.execute(primary);
+        } catch (RejectedExecutionException e) {
+            log.debug("Hedging executor saturated, calling {} without hedging", host);
+            return call.get();
+        }
+        FutureTask<Void> hedge = null;
+        try {
+            try {
+                return hedgedCall.result.get(hedging.hedgeDelayNanos(host), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                hedge = hedge(hedging, host, call, hedgedCall);
+            }
+            return hedgedCall.result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException(ErrorCode.EXTERNAL_SERVICE_ERROR, "Interrupted while calling external service", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new BusinessException(ErrorCode.EXTERNAL_SERVICE_ERROR, "Failed to call external service", e.getCause());
+        } finally {
+            primary.cancel(true);
+            if (hedge != null) {
+                hedge.cancel(true);
+            }
+        }
+    }
+    
+    /**
+     * Send the hedge unless the primary has already completed or failed, the budget is exhausted,
+     * or the hedging executor rejects it
+     */
+    private <T> FutureTask<Void> hedge(HedgingPolicy hedging, String host, Supplier<T> call, HedgedCall<T> hedgedCall) {
+        if (hedgedCall.result.isDone() || !hedgedCall.join()) {
+            return null;
+        }
+        if (!hedging.tryHedge()) {
+            hedgedCall.leave();
+            return null;
+        }
+        FutureTask<Void> hedge = attempt(hedging, host, call, hedgedCall, true);
+        try {
+            hedgingExecutor.execute(hedge);
+        } catch (RejectedExecutionException e) {
+            log.debug("Hedging executor saturated, skipping hedged request to: {}", host);
+            hedging.onHedgeSaturated();
+            hedgedCall.leave();
+            return null;
+        }
+        hedging.onHedgeSent();
+        log.debug("Sent hedged request to: {}", host);
+        return hedge;
+    }
+    
+    private <T> FutureTask<Void> attempt(HedgingPolicy hedging, String host, Supplier<T> call,
+                                         HedgedCall<T> hedgedCall, boolean isHedge) {
+        return new FutureTask<>(() -> {
+            long start = System.nanoTime();
+            try {
+                T value = call.get();
+                hedging.recordLatency(host, System.nanoTime() - start);
+                if (hedgedCall.result.complete(value) && isHedge) {
+                    hedging.onHedgeWon();
+                }
+            } catch (RuntimeException e) {
+                hedgedCall.fail(e);
+            }
+            return null;
+        });
+    }
+    
+    /**
+     * Outcome of a hedged call and the number of attempts still in flight
+     */
+    private static final class HedgedCall<T> {
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final AtomicInteger pending = new AtomicInteger(1);
+        private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        
+        /**
+         * Register a second attempt; false if the primary has already failed
+         */
+        boolean join() {
+            return pending.compareAndSet(1, 2);
+        }
+        
+        void fail(RuntimeException e) {
+            failure.compareAndSet(null, e);
+            leave();
+        }
+        
+        void leave() {
+            if (pending.decrementAndGet() == 0) {
+                result.completeExceptionally(failure.get());
+            }
+        }
+    }
+    
+    private <T> ResponseEntity<T> doGet(URI fullUrl, HttpHeaders httpHeaders, Class<T> responseType) {
         try {
-            HttpHeaders httpHeaders = createHeaders(headers);
             HttpEntity<?> entity = new HttpEntity<>(httpHeaders);
             
-            String fullUrl = buildUrlWithParams(url, params);
-            
             log.debug("GET request to: {}", fullUrl);
-            ResponseEntity<T> response = restTemplate.exchange(
+            return execute(
                 fullUrl,
                 HttpMethod.GET,
                 entity,
                 responseType
             );
-            
-            return response.getBody();
         } catch (RestClientException e) {
             log.error("GET request failed: {}", e.getMessage(), e);
-            throw new BusinessException(ErrorCode.EXTERNAL_SERVICE_ERROR, "Failed to call external service", e);
+            throw callFailure(e);
         }
     }
     
@@ -55,12 +286,16 @@ public class RestClientUtil {
     }
     
     public <T> T post(String url, Object request, Map<String, String> headers, Class<T> responseType) {
+        return post(expand(url), request, headers, responseType);
+    }
+    
+    public <T> T post(URI url, Object request, Map<String, String> headers, Class<T> responseType) {
         try {
-            HttpHeaders httpHeaders = createHeaders(headers);
+            HttpHeaders httpHeaders = createHeaders(headers, request);
             HttpEntity<Object> entity = new HttpEntity<>(request, httpHeaders);
             
             log.debug("POST request to: {}", url);
-            ResponseEntity<T> response = restTemplate.exchange(
+            ResponseEntity<T> response = execute(
                 url,
                 HttpMethod.POST,
                 entity,
@@ -70,7 +305,7 @@ public class RestClientUtil {
             return response.getBody();
         } catch (RestClientException e) {
             log.error("POST request failed: {}", e.getMessage(), e);
-            throw new BusinessException(ErrorCode.EXTERNAL_SERVICE_ERROR, "Failed to call external service", e);
+            throw callFailure(e);
         }
     }
     
@@ -79,12 +314,16 @@ public class RestClientUtil {
     }
     
     public <T> T put(String url, Object request, Map<String, String> headers, Class<T> responseType) {
+        return put(expand(url), request, headers, responseType);
+    }
+    
+    public <T> T put(URI url, Object request, Map<String, String> headers, Class<T> responseType) {
         try {
-            HttpHeaders httpHeaders = createHeaders(headers);
+            HttpHeaders httpHeaders = createHeaders(headers, request);
             HttpEntity<Object> entity = new HttpEntity<>(request, httpHeaders);
             
             log.debug("PUT request to: {}", url);
-            ResponseEntity<T> response = restTemplate.exchange(
+            ResponseEntity<T> response = execute(
                 url,
                 HttpMethod.PUT,
                 entity,
@@ -94,7 +333,7 @@ public class RestClientUtil {
             return response.getBody();
         } catch (RestClientException e) {
             log.error("PUT request failed: {}", e.getMessage(), e);
-            throw new BusinessException(ErrorCode.EXTERNAL_SERVICE_ERROR, "Failed to call external service", e);
+            throw callFailure(e);
         }
     }
     
@@ -103,12 +342,16 @@ public class RestClientUtil {
     }
     
     public void delete(String url, Map<String, String> headers) {
+        delete(expand(url), headers);
+    }
+    
+    public void delete(URI url, Map<String, String> headers) {
         try {
             HttpHeaders httpHeaders = createHeaders(headers);
             HttpEntity<?> entity = new HttpEntity<>(httpHeaders);
             
             log.debug("DELETE request to: {}", url);
-            restTemplate.exchange(
+            execute(
                 url,
                 HttpMethod.DELETE,
                 entity,
@@ -116,18 +359,23 @@ public class RestClientUtil {
             );
         } catch (RestClientException e) {
             log.error("DELETE request failed: {}", e.getMessage(), e);
-            throw new BusinessException(ErrorCode.EXTERNAL_SERVICE_ERROR, "Failed to call external service", e);
+            throw callFailure(e);
         }
     }
     
     public <T> T exchange(String url, HttpMethod method, Object request, 
                           Map<String, String> headers, Class<T> responseType) {
+        return exchange(expand(url), method, request, headers, responseType);
+    }
+    
+    public <T> T exchange(URI url, HttpMethod method, Object request,
+                          Map<String, String> headers, Class<T> responseType) {
         try {
-            HttpHeaders httpHeaders = createHeaders(headers);
+            HttpHeaders httpHeaders = createHeaders(headers, request);
             HttpEntity<Object> entity = new HttpEntity<>(request, httpHeaders);
             
             log.debug("{} request to: {}", method, url);
-            ResponseEntity<T> response = restTemplate.exchange(
+            ResponseEntity<T> response = execute(
                 url,
                 method,
                 entity,
@@ -137,18 +385,23 @@ public class RestClientUtil {
             return response.getBody();
         } catch (RestClientException e) {
             log.error("{} request failed: {}", method, e.getMessage(), e);
-            throw new BusinessException(ErrorCode.EXTERNAL_SERVICE_ERROR, "Failed to call external service", e);
+            throw callFailure(e);
         }
     }
     
     public <T> T exchange(String url, HttpMethod method, Object request,
                           Map<String, String> headers, ParameterizedTypeReference<T> responseType) {
+        return exchange(expand(url), method, request, headers, responseType);
+    }
+    
+    public <T> T exchange(URI url, HttpMethod method, Object request,
+                          Map<String, String> headers, ParameterizedTypeReference<T> responseType) {
         try {
-            HttpHeaders httpHeaders = createHeaders(headers);
+            HttpHeaders httpHeaders = createHeaders(headers, request);
             HttpEntity<Object> entity = new HttpEntity<>(request, httpHeaders);
             
             log.debug("{} request to: {}", method, url);
-            ResponseEntity<T> response = restTemplate.exchange(
+            ResponseEntity<T> response = execute(
                 url,
                 method,
                 entity,
@@ -158,13 +411,352 @@ public class RestClientUtil {
             return response.getBody();
         } catch (RestClientException e) {
             log.error("{} request failed: {}", method, e.getMessage(), e);
-            throw new BusinessException(ErrorCode.EXTERNAL_SERVICE_ERROR, "Failed to call external service", e);
+            throw callFailure(e);
+        }
+    }
+    
+    private <T> ResponseEntity<T> execute(URI url, HttpMethod method, HttpEntity<?> entity,
+                                          Class<T> responseType) {
+        checkDeadline(url, method);
+        long start = System.nanoTime();
+        try {
+            ResponseEntity<T> response = restTemplate.exchange(absolute(url), method, entity, responseType);
+            recordCall(url, method, response.getStatusCode().value(), start);
+            return response;
+        } catch (RestClientException e) {
+            recordFailure(url, method, e, start);
+            throw e;
+        } catch (BusinessException e) {
+            recordRejection(url, e);
+            throw e;
+        }
+    }
+    
+    private <T> ResponseEntity<T> execute(URI url, HttpMethod method, HttpEntity<?> entity,
+                                          ParameterizedTypeReference<T> responseType) {
+        checkDeadline(url, method);
+        long start = System.nanoTime();
+        try {
+            ResponseEntity<T> response = restTemplate.exchange(absolute(url), method, entity, responseType);
+            recordCall(url, method, response.getStatusCode().value(), start);
+            return response;
+        } catch (RestClientException e) {
+            recordFailure(url, method, e, start);
+            throw e;
+        } catch (BusinessException e) {
+            recordRejection(url, e);
+            throw e;
+        }
+    }
+    
+    /**
+     * Fail without calling when the request deadline has already passed
+     */
+    private static void checkDeadline(URI url, HttpMethod method) {
+        Deadline deadline = Deadline.current();
+        if (deadline != null && deadline.isExpired()) {
+            log.warn("{} request to {} not sent, request deadline exceeded", method, url);
+            throw new BusinessException(ErrorCode.EXTERNAL_SERVICE_TIMEOUT,
+                    "Request deadline exceeded before calling external service");
+        }
+    }
+    
+    /**
+     * EXTERNAL_SERVICE_TIMEOUT when the call ran out of the request deadline,
+     * EXTERNAL_SERVICE_ERROR otherwise
+     */
+    private static BusinessException callFailure(Exception e) {
+        Deadline deadline = Deadline.current();
+        if (deadline != null && (deadline.isExpired() || RestClientMetrics.isTimeout(e))) {
+            return new BusinessException(ErrorCode.EXTERNAL_SERVICE_TIMEOUT,
+                    "External service call exceeded the request deadline", e);
+        }
+        return new BusinessException(ErrorCode.EXTERNAL_SERVICE_ERROR, "Failed to call external service", e);
+    }
+    
+    private void recordCall(URI url, HttpMethod method, int status, long start) {
+        RestClientMetrics metrics = this.metrics;
+        if (metrics != null) {
+            metrics.record(RequestKeys.host(url), method, status, System.nanoTime() - start);
+        }
+    }
+    
+    private void recordFailure(URI url, HttpMethod method, RestClientException e, long start) {
+        RestClientMetrics metrics = this.metrics;
+        if (metrics != null) {
+            int status = e instanceof RestClientResponseException responseException
+                    ? responseException.getStatusCode().value()
+                    : 0;
+            String host = RequestKeys.host(url);
+            metrics.record(host, method, status, System.nanoTime() - start);
+            metrics.recordFailure(host, e);
+        }
+    }
+    
+    /**
+     * Interceptors such as the circuit breaker and throttling reject calls with a BusinessException
+     * before anything is sent
+     */
+    private void recordRejection(URI url, BusinessException e) {
+        RestClientMetrics metrics = this.metrics;
+        if (metrics != null) {
+            metrics.recordRejection(RequestKeys.host(url), e.getErrorCode().name());
+        }
+    }
+    
+    /**
+     * Stream the elements of a JSON array response without buffering the body.
+     * Elements are parsed incrementally, so memory stays constant regardless of response size.
+     * The returned stream holds the connection open and must be closed, e.g. with try-with-resources.
+     */
+    public <T> Stream<T> streamArray(String url, Map<String, String> headers, Class<T> elementType) {
+        return streamArray(url, HttpMethod.GET, null, headers, elementType);
+    }
+    
+    public <T> Stream<T> streamArray(String url, HttpMethod method, Object request,
+                                     Map<String, String> headers, Class<T> elementType) {
+        return streamArray(expand(url), method, request, headers, elementType);
+    }
+    
+    public <T> Stream<T> streamArray(URI url, HttpMethod method, Object request,
+                                     Map<String, String> headers, Class<T> elementType) {
+        ObjectMapper mapper = objectMapper();
+        ClientHttpResponse response = null;
+        URI uri = absolute(url);
+        checkDeadline(uri, method);
+        try {
+            ClientHttpRequest httpRequest = restTemplate.getRequestFactory().createRequest(uri, method);
+            httpRequest.getHeaders().putAll(createHeaders(headers));
+            httpRequest.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            httpRequest.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON));
+            if (request != null) {
+                mapper.writeValue(httpRequest.getBody(), request);
+            }
+            
+            log.debug("{} streaming request to: {}", method, url);
+            long start = System.nanoTime();
+            response = httpRequest.execute();
+            recordCall(uri, method, response.getStatusCode().value(), start);
+            ResponseErrorHandler errorHandler = restTemplate.getErrorHandler();
+            if (errorHandler.hasError(response)) {
+                errorHandler.handleError(uri, method, response);
+            }
+            
+            ClientHttpResponse openResponse = response;
+            return JsonStreams.<T>stream(mapper, response.getBody(),
+                            mapper.constructType(elementType), this::streamFailure)
+                    .onClose(openResponse::close);
+        } catch (IOException | RestClientException e) {
+            if (response != null) {
+                response.close();
+            }
+            RestClientMetrics metrics = this.metrics;
+            if (metrics != null) {
+                metrics.recordFailure(RequestKeys.host(uri), e);
+            }
+            log.error("{} streaming request failed: {}", method, e.getMessage(), e);
+            throw callFailure(e);
+        }
+    }
+    
+    /**
+     * Push each element of a JSON array response to the consumer as it is parsed
+     */
+    public <T> void forEachElement(String url, HttpMethod method, Object request, Map<String, String> headers,
+                                   Class<T> elementType, Consumer<? super T> consumer) {
+        try (Stream<T> elements = streamArray(url, method, request, headers, elementType)) {
+            elements.forEach(consumer);
+        }
+    }
+    
+    /**
+     * Enable single-flight coalescing of identical concurrent GETs (null disables it).
+     * Coalesced callers share the same deserialized response instance.
+     */
+    public void setRequestCoalescer(RequestCoalescer requestCoalescer) {
+        this.requestCoalescer = requestCoalescer;
+    }
+    
+    public RequestCoalescer getRequestCoalescer() {
+        return requestCoalescer;
+    }
+    
+    /**
+     * Enable the in-memory response cache for GETs (null disables it).
+     * Cached bodies are shared between callers and must be treated as read-only.
+     */
+    public void setResponseCache(ResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+    
+    public ResponseCache getResponseCache() {
+        return responseCache;
+    }
+    
+    /**
+     * Enable hedged requests for GETs (null disables it).
+     * Attempts run on a shared default hedging executor.
+     */
+    public void setHedgingPolicy(HedgingPolicy hedgingPolicy) {
+        setHedgingPolicy(hedgingPolicy, hedgingPolicy != null ? HedgingExecutorHolder.EXECUTOR : null);
+    }
+    
+    /**
+     * Enable hedged requests for GETs (null disables it)
+     *
+     * @param hedgingExecutor Executor running both attempts. It must reject tasks when saturated
+     *                        rather than run them on the caller, so that hedges are skipped instead
+     *                        of being sent after the primary; see ExecutorUtils.newRejectingIoExecutor
+     */
+    public void setHedgingPolicy(HedgingPolicy hedgingPolicy, Executor hedgingExecutor) {
+        this.hedgingExecutor = hedgingExecutor != null ? Deadline.propagating(hedgingExecutor) : null;
+        this.hedgingPolicy = hedgingPolicy;
+    }
+    
+    public HedgingPolicy getHedgingPolicy() {
+        return hedgingPolicy;
+    }
+    
+    /**
+     * Record latency and outcome of every call (null disables it)
+     */
+    public void setMetrics(RestClientMetrics metrics) {
+        this.metrics = metrics;
+    }
+    
+    public RestClientMetrics getMetrics() {
+        return metrics;
+    }
+    
+    /**
+     * Send request bodies in the given format (e.g. application/x-jackson-smile) and ask for
+     * responses in it, with JSON as the fallback; null sends and expects JSON only.
+     * Bodies the format's converter does not encode, such as pre-serialized String or byte[]
+     * JSON, keep the JSON Content-Type.
+     * The RestTemplate needs a converter for the format and the called services must accept it.
+     * A Content-Type or Accept header passed to a call takes precedence.
+     */
+    public void setPreferredMediaType(MediaType preferredMediaType) {
+        this.preferredMediaType = preferredMediaType;
+        binaryBodyTypes.clear();
+    }
+    
+    public MediaType getPreferredMediaType() {
+        return preferredMediaType;
+    }
+    
+    /*
+     * Async variants. Each runs the blocking call on the configured executor so request threads
+     * are not parked on I/O, under the caller's Deadline. Failures complete the future exceptionally
+     * with the same BusinessException the blocking variant throws.
+     */
+    
+    public <T> CompletableFuture<T> getAsync(String url, Class<T> responseType) {
+        return getAsync(url, null, null, responseType);
+    }
+    
+    public <T> CompletableFuture<T> getAsync(String url, Map<String, String> headers, Class<T> responseType) {
+        return getAsync(url, headers, null, responseType);
+    }
+    
+    public <T> CompletableFuture<T> getAsync(String url, Map<String, String> headers,
+                                             Map<String, Object> params, Class<T> responseType) {
+        return CompletableFuture.supplyAsync(() -> get(url, headers, params, responseType), executor);
+    }
+    
+    public <T> CompletableFuture<T> postAsync(String url, Object request, Class<T> responseType) {
+        return postAsync(url, request, null, responseType);
+    }
+    
+    public <T> CompletableFuture<T> postAsync(String url, Object request, Map<String, String> headers,
+                                              Class<T> responseType) {
+        return CompletableFuture.supplyAsync(() -> post(url, request, headers, responseType), executor);
+    }
+    
+    public <T> CompletableFuture<T> putAsync(String url, Object request, Class<T> responseType) {
+        return putAsync(url, request, null, responseType);
+    }
+    
+    public <T> CompletableFuture<T> putAsync(String url, Object request, Map<String, String> headers,
+                                             Class<T> responseType) {
+        return CompletableFuture.supplyAsync(() -> put(url, request, headers, responseType), executor);
+    }
+    
+    public CompletableFuture<Void> deleteAsync(String url) {
+        return deleteAsync(url, null);
+    }
+    
+    public CompletableFuture<Void> deleteAsync(String url, Map<String, String> headers) {
+        return CompletableFuture.runAsync(() -> delete(url, headers), executor);
+    }
+    
+    public <T> CompletableFuture<T> exchangeAsync(String url, HttpMethod method, Object request,
+                                                  Map<String, String> headers, Class<T> responseType) {
+        return CompletableFuture.supplyAsync(
+                () -> exchange(url, method, request, headers, responseType), executor);
+    }
+    
+    public <T> CompletableFuture<T> exchangeAsync(String url, HttpMethod method, Object request,
+                                                  Map<String, String> headers,
+                                                  ParameterizedTypeReference<T> responseType) {
+        return CompletableFuture.supplyAsync(
+                () -> exchange(url, method, request, headers, responseType), executor);
+    }
+    
+    private BusinessException streamFailure(IOException e) {
+        log.error("Streaming response failed: {}", e.getMessage(), e);
+        return new BusinessException(ErrorCode.EXTERNAL_SERVICE_ERROR, "Failed to read external service response", e);
+    }
+    
+    private ObjectMapper objectMapper() {
+        ObjectMapper mapper = this.objectMapper;
+        if (mapper == null) {
+            mapper = restTemplate.getMessageConverters().stream()
+                    .filter(MappingJackson2HttpMessageConverter.class::isInstance)
+                    .map(converter -> ((MappingJackson2HttpMessageConverter) converter).getObjectMapper())
+                    .findFirst()
+                    .orElseGet(ObjectMapper::new);
+            this.objectMapper = mapper;
         }
+        return mapper;
     }
     
     private HttpHeaders createHeaders(Map<String, String> headers) {
+        return createHeaders(headers, null);
+    }
+    
+    /**
+     * Whether the RestTemplate writes bodies of the type with a Jackson converter for the media type,
+     * as opposed to e.g. the String or byte[] converter, which accept any media type
+     */
+    private boolean isEncodedAs(Class<?> bodyType, MediaType mediaType) {
+        return binaryBodyTypes.computeIfAbsent(bodyType, type -> restTemplate.getMessageConverters().stream()
+                .filter(converter -> converter.canWrite(type, mediaType))
+                .findFirst()
+                .filter(AbstractJackson2HttpMessageConverter.class::isInstance)
+                .isPresent());
+    }
+    
+    /**
+     * Default headers for a call. The preferred format is always asked for in Accept, but only
+     * labels the body when a binary Jackson converter will encode it: String and byte[] bodies
+     * are written as-is by their own converters and keep the JSON Content-Type.
+     */
+    private HttpHeaders createHeaders(Map<String, String> headers, Object body) {
         HttpHeaders httpHeaders = new HttpHeaders();
-        httpHeaders.setContentType(MediaType.APPLICATION_JSON);
+        MediaType preferred = this.preferredMediaType;
+        if (preferred != null) {
+            httpHeaders.setContentType(body != null && isEncodedAs(body.getClass(), preferred)
+                    ? preferred : MediaType.APPLICATION_JSON);
+            httpHeaders.setAccept(List.of(preferred, JSON_FALLBACK));
+        } else {
+            httpHeaders.setContentType(MediaType.APPLICATION_JSON);
+        }
+        
+        Deadline deadline = Deadline.current();
+        if (deadline != null) {
+            httpHeaders.set(Constants.HEADER_REQUEST_TIMEOUT, String.valueOf(Math.max(deadline.remainingMillis(), 1)));
+        }
         
         if (headers != null && !headers.isEmpty()) {
             headers.forEach(httpHeaders::set);
@@ -173,18 +765,58 @@ public class RestClientUtil {
         return httpHeaders;
     }
     
-    private String buildUrlWithParams(String url, Map<String, Object> params) {
+    /**
+     * Expand the URL with the RestTemplate's URI handler (root URI, encoding) and append
+     * the encoded query parameters
+     */
+    private URI buildUrlWithParams(String url, Map<String, Object> params) {
+        URI uri = expand(url);
         if (params == null || params.isEmpty()) {
-            return url;
+            return uri;
         }
         
-        StringBuilder urlBuilder = new StringBuilder(url);
-        urlBuilder.append("?");
-        
-        params.forEach((key, value) -> {
-            urlBuilder.append(key).append("=").append(value).append("&");
-        });
-        
-        return urlBuilder.substring(0, urlBuilder.length() - 1);
+        String base = uri.toString();
+        StringBuilder urlBuilder = new StringBuilder(base.length() + params.size() * 16).append(base);
+        urlBuilder.append(uri.getRawQuery() == null ? '?' : '&');
+        UrlTemplate.appendQuery(urlBuilder, params);
+        return URI.create(urlBuilder.toString());
+    }
+    
+    private URI expand(String url) {
+        return restTemplate.getUriTemplateHandler().expand(url);
+    }
+    
+    /**
+     * Resolve a relative URI against the RestTemplate's root URI, if one is configured
+     */
+    private URI absolute(URI uri) {
+        if (uri.isAbsolute()) {
+            return uri;
+        }
+        String root = restTemplate.getUriTemplateHandler().expand("/").toString();
+        root = root.substring(0, root.length() - 1);
+        return root.isEmpty() ? uri : URI.create(root + uri);
+    }
+    
+    /**
+     * Templates compiled by template(), up to MAX_CACHED_TEMPLATES distinct templates
+     */
+    private static final class TemplateCache {
+        private static final int MAX_CACHED_TEMPLATES = 1024;
+        private static final ConcurrentHashMap<String, UrlTemplate> TEMPLATES = new ConcurrentHashMap<>();
+    }
+    
+    /**
+     * Lazily created executor for instances constructed without one
+     */
+    private static final class DefaultExecutorHolder {
+        private static final Executor EXECUTOR = ExecutorUtils.newIoExecutor("rest-client", 64, 1000, true);
+    }
+    
+    /**
+     * Lazily created hedging executor for policies set without one
+     */
+    private static final class HedgingExecutorHolder {
+        private static final Executor EXECUTOR = ExecutorUtils.newRejectingIoExecutor("rest-client-hedging", 64, 0, true);
     }
-}
\ No newline at end of file
+}
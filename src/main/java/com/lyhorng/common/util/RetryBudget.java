@@ -0,0 +1,53 @@
+package com.lyhorng.common.util;
+
+/**
+ * Retry budget of one operation: retries may be at most a configured percentage of
+ * first attempts. Shared by every caller of the operation, so an outage cannot multiply
+ * the downstream load by the number of retries.
+ */
+public class RetryBudget {
+
+    private final String name;
+    private final RatioBudget budget;
+
+    public RetryBudget(String name, RetryBudgetConfig config) {
+        this.name = name;
+        this.budget = new RatioBudget(config.getPercent(), config.getMaxTokens());
+    }
+
+    /**
+     * Record a first attempt, adding to the budget
+     */
+    public void onAttempt() {
+        budget.deposit();
+    }
+
+    /**
+     * Try to take a retry from the budget
+     *
+     * @return false if the budget is exhausted and the operation should fail fast
+     */
+    public boolean tryRetry() {
+        return budget.tryWithdraw();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public double getAvailableTokens() {
+        return budget.getAvailableTokens();
+    }
+
+    public long getAttempts() {
+        return budget.getDeposits();
+    }
+
+    public long getRetries() {
+        return budget.getWithdrawals();
+    }
+
+    public long getRejectedRetries() {
+        return budget.getRejections();
+    }
+}
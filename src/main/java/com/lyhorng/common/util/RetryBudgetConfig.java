@@ -0,0 +1,20 @@
+package com.lyhorng.common.util;
+
+import lombok.Data;
+
+/**
+ * Settings for a RetryBudget
+ */
+@Data
+public class RetryBudgetConfig {
+
+    /**
+     * Retries allowed as a percentage of first attempts
+     */
+    private double percent = 10;
+
+    /**
+     * Retries that can be saved up for a burst; also the balance at startup
+     */
+    private int maxTokens = 10;
+}
@@ -0,0 +1,26 @@
+package com.lyhorng.common.util;
+
+import java.util.Map;
+
+/**
+ * Holds one RetryBudget per operation name, created on first use
+ */
+public class RetryBudgetRegistry extends KeyedRegistry<RetryBudget, RetryBudgetConfig> {
+
+    /**
+     * @param defaultConfig Settings for operations without specific settings
+     * @param operationConfigs Settings per operation name
+     */
+    public RetryBudgetRegistry(RetryBudgetConfig defaultConfig, Map<String, RetryBudgetConfig> operationConfigs) {
+        super(defaultConfig, operationConfigs);
+    }
+
+    public RetryBudget forOperation(String operation) {
+        return get(operation);
+    }
+
+    @Override
+    protected RetryBudget create(String operation, RetryBudgetConfig config) {
+        return new RetryBudget(operation, config);
+    }
+}
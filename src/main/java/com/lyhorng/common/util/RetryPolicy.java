@@ -0,0 +1,75 @@
+package com.lyhorng.common.util;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.function.Predicate;
+
+/**
+ * Settings for RetryUtil.executeAsync
+ *
+ * <pre>
+ * RetryPolicy.&lt;User&gt;builder()
+ *         .operation("user-service.getUser")
+ *         .maxAttempts(5)
+ *         .backoff(BackoffPolicy.decorrelatedJitter(Duration.ofMillis(100), Duration.ofSeconds(5)))
+ *         .maxElapsedTime(Duration.ofSeconds(10))
+ *         .retryOn(RetryPolicy.exceptionTypes(IOException.class))
+ *         .build();
+ * </pre>
+ */
+@Getter
+@Builder
+public class RetryPolicy<T> {
+
+    /**
+     * Maximum number of attempts, including the first one
+     */
+    @Builder.Default
+    private final int maxAttempts = 3;
+
+    /**
+     * Delay between attempts
+     */
+    @Builder.Default
+    private final BackoffPolicy backoff =
+            BackoffPolicy.exponential(Duration.ofMillis(100), 2, Duration.ofSeconds(10));
+
+    /**
+     * No attempt is scheduled after this time since the first attempt (null = no limit)
+     */
+    private final Duration maxElapsedTime;
+
+    /**
+     * Name of the shared retry budget to draw retries from (null = no budget)
+     */
+    private final String operation;
+
+    /**
+     * Failures that are retried; others fail the call immediately
+     */
+    @Builder.Default
+    private final Predicate<Throwable> retryOn = failure -> true;
+
+    /**
+     * Results that are retried, e.g. an empty or pending response
+     */
+    @Builder.Default
+    private final Predicate<? super T> retryOnResult = result -> false;
+
+    /**
+     * Predicate matching failures that are instances of any of the given types
+     */
+    @SafeVarargs
+    public static Predicate<Throwable> exceptionTypes(Class<? extends Throwable>... types) {
+        return failure -> {
+            for (Class<? extends Throwable> type : types) {
+                if (type.isInstance(failure)) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+}
@@ -2,18 +2,42 @@ package com.lyhorng.common.util;
 
 import lombok.extern.slf4j.Slf4j;
 
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 /**
- * Utility class for retry operations
+ * Utility class for retry operations.
+ * The blocking variants sleep between attempts; the async variants schedule attempts on
+ * CompletableFuture's shared delay scheduler and hold no thread while waiting.
+ * All variants stop once the next attempt could not start before the request Deadline.
  */
 @Slf4j
 public class RetryUtil {
 
+    private static volatile RetryBudgetRegistry retryBudgetRegistry =
+            new RetryBudgetRegistry(new RetryBudgetConfig(), Map.of());
+
     private RetryUtil() {
         throw new IllegalStateException("Utility class");
     }
 
+    /**
+     * Replace the registry holding the retry budgets of named operations (done by RetryConfig)
+     */
+    public static void setRetryBudgetRegistry(RetryBudgetRegistry registry) {
+        retryBudgetRegistry = registry;
+    }
+
+    public static RetryBudgetRegistry getRetryBudgetRegistry() {
+        return retryBudgetRegistry;
+    }
+
     /**
      * Execute a supplier with retry logic
      *
@@ -41,6 +65,49 @@ public class RetryUtil {
      */
     public static <T> T executeWithRetry(Supplier<T> supplier, int maxRetries, 
                                          long retryDelayMs, Class<? extends Exception> retryOnException) {
+        return executeWithRetry(supplier, maxRetries, retryDelayMs, retryOnException, null);
+    }
+
+    /**
+     * Execute a supplier with retry logic, drawing retries from the shared budget of the operation.
+     * When the budget is exhausted the call fails fast instead of retrying.
+     *
+     * @param operation Name of the retry budget, shared by all callers of the operation
+     * @param supplier The operation to retry
+     * @param maxRetries Maximum number of retries
+     * @param retryDelayMs Delay between retries in milliseconds
+     * @param <T> Return type
+     * @return Result of the supplier
+     * @throws RuntimeException If all retries fail or the budget is exhausted
+     */
+    public static <T> T executeWithRetry(String operation, Supplier<T> supplier, int maxRetries, long retryDelayMs) {
+        return executeWithRetry(operation, supplier, maxRetries, retryDelayMs, null);
+    }
+
+    /**
+     * Execute a supplier with retry logic and exception handling, drawing retries from the
+     * shared budget of the operation
+     *
+     * @param operation Name of the retry budget, shared by all callers of the operation
+     * @param supplier The operation to retry
+     * @param maxRetries Maximum number of retries
+     * @param retryDelayMs Delay between retries in milliseconds
+     * @param retryOnException Exception types to retry on (null = retry on all exceptions)
+     * @param <T> Return type
+     * @return Result of the supplier
+     * @throws RuntimeException If all retries fail or the budget is exhausted
+     */
+    public static <T> T executeWithRetry(String operation, Supplier<T> supplier, int maxRetries,
+                                         long retryDelayMs, Class<? extends Exception> retryOnException) {
+        return executeWithRetry(supplier, maxRetries, retryDelayMs, retryOnException,
+                retryBudgetRegistry.forOperation(operation));
+    }
+
+    private static <T> T executeWithRetry(Supplier<T> supplier, int maxRetries, long retryDelayMs,
+                                          Class<? extends Exception> retryOnException, RetryBudget budget) {
+        if (budget != null) {
+            budget.onAttempt();
+        }
         int attempts = 0;
         Exception lastException = null;
 
@@ -57,6 +124,15 @@ public class RetryUtil {
                 }
 
                 if (attempts < maxRetries) {
+                    Deadline deadline = Deadline.current();
+                    if (deadline != null && deadline.remainingMillis() <= retryDelayMs) {
+                        log.error("Request deadline leaves no time for another attempt: {}", e.getMessage());
+                        throw new RuntimeException("Request deadline exceeded after " + attempts + " attempts", e);
+                    }
+                    if (budget != null && !budget.tryRetry()) {
+                        log.error("Retry budget of {} exhausted, failing fast: {}", budget.getName(), e.getMessage());
+                        throw new RuntimeException("Retry budget exhausted for " + budget.getName(), e);
+                    }
                     log.warn("Attempt {} failed, retrying in {}ms: {}", attempts, retryDelayMs, e.getMessage());
                     try {
                         Thread.sleep(retryDelayMs);
@@ -85,5 +161,144 @@ public class RetryUtil {
             return null;
         }, maxRetries, retryDelayMs);
     }
-}
 
+    /**
+     * Retry an asynchronous operation according to the policy without blocking any thread.
+     * Each attempt calls the supplier again; waits between attempts are scheduled on a shared timer.
+     * The result completes with the first accepted result, with a non-retryable failure as is,
+     * or with a RuntimeException wrapping the last failure when attempts, time, the request
+     * Deadline or the operation's retry budget run out. Attempts run under the caller's Deadline.
+     * Cancelling the returned future stops further attempts.
+     *
+     * @param operation Starts one attempt
+     * @param policy Attempts, backoff and retry conditions
+     */
+    public static <T> CompletableFuture<T> executeAsync(Supplier<? extends CompletableFuture<T>> operation,
+                                                        RetryPolicy<T> policy) {
+        AsyncRetry<T> retry = new AsyncRetry<>(operation, policy, null);
+        retry.attempt();
+        return retry.result;
+    }
+
+    /**
+     * Retry a blocking operation according to the policy. Attempts run on the executor and
+     * no thread is held between them.
+     *
+     * @param supplier The operation to retry
+     * @param policy Attempts, backoff and retry conditions
+     * @param executor Executor running each attempt
+     */
+    public static <T> CompletableFuture<T> executeAsync(Supplier<T> supplier, RetryPolicy<T> policy,
+                                                        Executor executor) {
+        AsyncRetry<T> retry = new AsyncRetry<>(() -> CompletableFuture.completedFuture(supplier.get()),
+                policy, executor);
+        executor.execute(retry::attempt);
+        return retry.result;
+    }
+
+    /**
+     * State of one asynchronous retry loop. Attempts run one after another, so the
+     * fields are only touched by one thread at a time.
+     */
+    private static final class AsyncRetry<T> {
+
+        private final Supplier<? extends CompletableFuture<T>> operation;
+        private final RetryPolicy<T> policy;
+        private final Executor executor;
+        private final RetryBudget budget;
+        private final Deadline deadline = Deadline.current();
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final long startNanos = System.nanoTime();
+        private int attempts;
+        private long delayMillis;
+        private String stopReason;
+
+        private AsyncRetry(Supplier<? extends CompletableFuture<T>> operation, RetryPolicy<T> policy,
+                           Executor executor) {
+            this.operation = operation;
+            this.policy = policy;
+            this.executor = executor;
+            this.budget = policy.getOperation() != null ? retryBudgetRegistry.forOperation(policy.getOperation()) : null;
+            if (budget != null) {
+                budget.onAttempt();
+            }
+        }
+
+        private void attempt() {
+            if (result.isDone()) {
+                return;
+            }
+            attempts++;
+            CompletableFuture<T> future;
+            try {
+                future = deadline != null ? Deadline.call(deadline, operation) : operation.get();
+            } catch (RuntimeException e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+            future.whenComplete(this::onComplete);
+        }
+
+        private void onComplete(T value, Throwable failure) {
+            if (failure == null) {
+                if (policy.getRetryOnResult().test(value) && scheduleNext("result not accepted")) {
+                    return;
+                }
+                result.complete(value);
+                return;
+            }
+
+            Throwable cause = unwrap(failure);
+            if (!policy.getRetryOn().test(cause)) {
+                log.error("Exception not in retry list, failing immediately: {}", cause.getMessage());
+                result.completeExceptionally(cause);
+                return;
+            }
+            if (!scheduleNext(cause.getMessage())) {
+                if (stopReason != null) {
+                    log.error("{}, failing fast: {}", stopReason, cause.getMessage());
+                    result.completeExceptionally(new RuntimeException(stopReason, cause));
+                    return;
+                }
+                log.error("All {} retry attempts failed", attempts);
+                result.completeExceptionally(
+                        new RuntimeException("Operation failed after " + attempts + " attempts", cause));
+            }
+        }
+
+        private boolean scheduleNext(String reason) {
+            if (attempts >= policy.getMaxAttempts() || result.isDone()) {
+                return false;
+            }
+            long delay = Math.max(0, policy.getBackoff().nextDelayMillis(attempts, delayMillis));
+            Duration maxElapsedTime = policy.getMaxElapsedTime();
+            if (maxElapsedTime != null
+                    && System.nanoTime() - startNanos + TimeUnit.MILLISECONDS.toNanos(delay) > maxElapsedTime.toNanos()) {
+                return false;
+            }
+            if (deadline != null && TimeUnit.MILLISECONDS.toNanos(delay) >= deadline.remainingNanos()) {
+                stopReason = "Request deadline exceeded after " + attempts + " attempts";
+                return false;
+            }
+            if (budget != null && !budget.tryRetry()) {
+                stopReason = "Retry budget exhausted for " + budget.getName();
+                return false;
+            }
+            delayMillis = delay;
+            log.warn("Attempt {} failed, retrying in {}ms: {}", attempts, delay, reason);
+            Executor delayed = executor != null
+                    ? CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS, executor)
+                    : CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS);
+            delayed.execute(this::attempt);
+            return true;
+        }
+
+        private static Throwable unwrap(Throwable failure) {
+            Throwable cause = failure;
+            while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                    && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            return cause;
+        }
+    }
+}
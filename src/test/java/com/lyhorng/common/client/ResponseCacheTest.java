@@ -0,0 +1,64 @@
+package com.lyhorng.common.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResponseCacheTest {
+
+    @Test
+    void restoringOneKeyKeepsTheEvictionQueueBounded() {
+        ResponseCache cache = new ResponseCache(100, Duration.ofMinutes(5), List.of());
+
+        for (int i = 0; i < 10_000; i++) {
+            cache.store("key", "example.com", cacheable("body-" + i));
+        }
+
+        assertEquals(1, cache.size());
+        assertTrue(cache.queuedEntries() <= 2 * cache.size() + 17, "queued: " + cache.queuedEntries());
+        assertEquals("body-9999", cache.get("key").getBody());
+    }
+
+    @Test
+    void expiredEntriesDoNotAccumulateInTheEvictionQueue() throws InterruptedException {
+        ResponseCache cache = new ResponseCache(100, Duration.ofMillis(1), List.of());
+
+        for (int i = 0; i < 200; i++) {
+            cache.store("key-" + (i % 2), "example.com", cacheable("body-" + i));
+            Thread.sleep(2);
+            assertNull(cache.get("key-" + (i % 2)));
+        }
+
+        assertEquals(0, cache.size());
+
+        assertTrue(cache.queuedEntries() <= 2 * cache.size() + 17, "queued: " + cache.queuedEntries());
+    }
+
+    @Test
+    void evictsTheOldestKeysBeyondMaxEntries() {
+        ResponseCache cache = new ResponseCache(3, Duration.ofMinutes(5), List.of());
+
+        for (int i = 0; i < 5; i++) {
+            cache.store("key-" + i, "example.com", cacheable("body-" + i));
+        }
+
+        assertEquals(3, cache.size());
+        assertNull(cache.get("key-0"));
+        assertNull(cache.get("key-1"));
+        assertEquals("body-4", cache.get("key-4").getBody());
+    }
+
+    private static ResponseEntity<String> cacheable(String body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl("max-age=60");
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+}
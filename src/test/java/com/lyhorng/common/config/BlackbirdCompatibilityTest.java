@@ -0,0 +1,178 @@
+package com.lyhorng.common.config;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.junit.jupiter.api.Test;
+
+import com.lyhorng.common.response.ApiResponse;
+import com.lyhorng.common.response.ErrorResponse;
+import com.lyhorng.common.response.PageResponse;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The Blackbird-enabled ObjectMapper must produce and accept exactly the same JSON as the default one
+ */
+class BlackbirdCompatibilityTest {
+
+    private static final LocalDateTime TIMESTAMP = LocalDateTime.of(2024, 1, 15, 10, 30, 45, 123_000_000);
+
+    private final ObjectMapper reflective = objectMapper(false);
+    private final ObjectMapper blackbird = objectMapper(true);
+
+    @Test
+    void registersModuleOnlyWhenEnabled() {
+        Object moduleId = new BlackbirdModule().getTypeId();
+        assertTrue(blackbird.getRegisteredModuleIds().contains(moduleId));
+        assertFalse(reflective.getRegisteredModuleIds().contains(moduleId));
+    }
+
+    @Test
+    void apiResponseWithPageIsWrittenIdentically() throws Exception {
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            items.add(new Item(i, "item-" + i, BigDecimal.valueOf(i * 10L, 2), LocalDate.of(2024, 1, 1).plusDays(i),
+                    i % 2 == 0, i % 3 == 0 ? null : List.of("a", "b")));
+        }
+        ApiResponse<PageResponse<Item>> response = ApiResponse.<PageResponse<Item>>builder()
+                .success(true)
+                .message("OK")
+                .data(PageResponse.of(items, 0, 20, 45))
+                .timestamp(TIMESTAMP)
+                .build();
+
+        String json = reflective.writeValueAsString(response);
+        assertEquals(json, blackbird.writeValueAsString(response));
+
+        TypeReference<ApiResponse<PageResponse<Item>>> type = new TypeReference<>() {
+        };
+        ApiResponse<PageResponse<Item>> read = blackbird.readValue(json, type);
+        assertEquals(reflective.readValue(json, type), read);
+        assertEquals(response, read);
+    }
+
+    @Test
+    void errorResponsesAreWrittenIdentically() throws Exception {
+        ApiResponse<Void> error = ApiResponse.<Void>builder()
+                .success(false)
+                .message("Resource not found")
+                .errorCode("NOT_FOUND")
+                .path("/api/items/1")
+                .timestamp(TIMESTAMP)
+                .build();
+        assertEquals(reflective.writeValueAsString(error), blackbird.writeValueAsString(error));
+
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        metadata.put("attempt", 2);
+        metadata.put("tags", List.of("x", "y"));
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .errorCode("VALIDATION_ERROR")
+                .message("Validation failed")
+                .status(400)
+                .timestamp(TIMESTAMP)
+                .fieldErrors(List.of(new ErrorResponse.FieldError("name", "must not be blank", "")))
+                .metadata(metadata)
+                .build();
+
+        String json = reflective.writeValueAsString(errorResponse);
+        assertEquals(json, blackbird.writeValueAsString(errorResponse));
+        assertEquals(errorResponse, blackbird.readValue(json, ErrorResponse.class));
+    }
+
+    @Test
+    void registersNoOtherModules() {
+        Set<Object> moduleIds = new HashSet<>(blackbird.getRegisteredModuleIds());
+        moduleIds.remove(new BlackbirdModule().getTypeId());
+        assertEquals(reflective.getRegisteredModuleIds(), moduleIds);
+    }
+
+    @Test
+    void optionalIsWrittenIdentically() throws Exception {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("present", Optional.of("x"));
+        values.put("empty", Optional.empty());
+        assertEquals(reflective.writeValueAsString(values), blackbird.writeValueAsString(values));
+    }
+
+    @Test
+    void constructorBoundTypesAreReadIdentically() throws Exception {
+        String json = "{\"id\":7,\"name\":\"seven\"}";
+        assertEquals(outcome(() -> reflective.readValue(json, Pair.class)),
+                outcome(() -> blackbird.readValue(json, Pair.class)));
+
+        Pair pair = new Pair(7, "seven");
+        assertEquals(reflective.writeValueAsString(pair), blackbird.writeValueAsString(pair));
+    }
+
+    @Test
+    void readsLenientlyLikeTheDefaultMapper() throws Exception {
+        String json = "{\"success\":true,\"unknown\":1,\"data\":\"\",\"timestamp\":\"2024-01-15T10:30:45.123\"}";
+        TypeReference<ApiResponse<Item>> type = new TypeReference<>() {
+        };
+        assertEquals(reflective.readValue(json, type), blackbird.readValue(json, type));
+    }
+
+    private static ObjectMapper objectMapper(boolean blackbird) {
+        JsonProperties properties = new JsonProperties();
+        properties.getBlackbird().setEnabled(blackbird);
+        return new CommonConfig().objectMapper(properties);
+    }
+
+    /**
+     * Either the value read or the type of the exception thrown
+     */
+    private static Object outcome(Callable<Object> read) {
+        try {
+            return read.call();
+        } catch (Exception e) {
+            return e.getClass();
+        }
+    }
+
+    /**
+     * Immutable type with a single unannotated constructor, bound only when parameter names are known
+     */
+    @Getter
+    @EqualsAndHashCode
+    public static class Pair {
+        private final long id;
+        private final String name;
+
+        public Pair(long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        private long id;
+        private String name;
+        private BigDecimal price;
+        private LocalDate availableFrom;
+        private boolean active;
+        private List<String> tags;
+    }
+}
@@ -0,0 +1,121 @@
+package com.lyhorng.common.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+
+import com.lyhorng.common.config.CommonConfig;
+import com.lyhorng.common.config.JsonProperties;
+import com.lyhorng.common.exception.ErrorCode;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ApiResponseSerializer must write exactly what the bean serializer writes under the same mapper settings
+ */
+class ApiResponseSerializerTest {
+
+    private static final LocalDateTime TIMESTAMP = LocalDateTime.of(2024, 1, 15, 10, 30, 45, 120_000_000);
+
+    @Test
+    void isUsedByTheDefaultMapper() throws Exception {
+        assertTrue(envelopeSerializer(objectMapper(true, mapper -> { })) instanceof ApiResponseSerializer);
+        assertFalse(envelopeSerializer(objectMapper(false, mapper -> { })) instanceof ApiResponseSerializer);
+    }
+
+    @Test
+    void writesLikeTheBeanSerializer() throws Exception {
+        assertSameOutput(mapper -> { });
+    }
+
+    @Test
+    void followsTheNamingStrategy() throws Exception {
+        String json = assertSameOutput(mapper -> mapper.setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE));
+        assertTrue(json.contains("\"error_code\""), json);
+    }
+
+    @Test
+    void followsMixIns() throws Exception {
+        String json = assertSameOutput(mapper -> mapper.addMixIn(ApiResponse.class, RenamedPath.class));
+        assertTrue(json.contains("\"uri\""), json);
+    }
+
+    @Test
+    void followsTheLocalDateTimeFormat() throws Exception {
+        String json = assertSameOutput(mapper -> mapper.configOverride(LocalDateTime.class)
+                .setFormat(JsonFormat.Value.forPattern("dd/MM/yyyy HH:mm")));
+        assertTrue(json.contains("\"15/01/2024 10:30\""), json);
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    void followsAlphabeticalPropertyOrder() throws Exception {
+        String json = assertSameOutput(mapper -> mapper.enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY));
+        assertTrue(json.indexOf("\"errorCode\"") < json.indexOf("\"success\""), json);
+    }
+
+    @Test
+    void followsWriteDatesAsTimestamps() throws Exception {
+        assertSameOutput(mapper -> mapper.enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+    }
+
+    private static String assertSameOutput(Consumer<ObjectMapper> customizer) throws Exception {
+        ObjectMapper bean = objectMapper(false, customizer);
+        ObjectMapper direct = objectMapper(true, customizer);
+        String last = null;
+        for (ApiResponse<?> response : responses()) {
+            last = bean.writeValueAsString(response);
+            assertEquals(last, direct.writeValueAsString(response));
+        }
+        return last;
+    }
+
+    private static List<ApiResponse<?>> responses() {
+        ApiResponse<Map<String, Object>> success = ApiResponse.<Map<String, Object>>builder()
+                .success(true)
+                .message("OK")
+                .data(Map.of("createdAt", TIMESTAMP))
+                .timestamp(TIMESTAMP)
+                .build();
+        PrerenderedErrorResponse validation = PrerenderedErrorResponse.of(
+                PrerenderedErrorResponse.template(ErrorCode.VALIDATION_ERROR, "Validation failed"), null, null,
+                "/api/items", List.of(new ErrorResponse.FieldError("name", "must not be blank", "")));
+        validation.setTimestamp(TIMESTAMP);
+        ApiResponse<Void> error = ApiResponse.<Void>builder()
+                .success(false)
+                .message("Resource not found")
+                .errorCode("NOT_FOUND")
+                .path("/api/items/1")
+                .timestamp(TIMESTAMP)
+                .build();
+        return List.of(success, validation, error);
+    }
+
+    private static Object envelopeSerializer(ObjectMapper mapper) throws Exception {
+        return mapper.getSerializerProviderInstance().findValueSerializer(ApiResponse.class);
+    }
+
+    private static ObjectMapper objectMapper(boolean envelopeSerializer, Consumer<ObjectMapper> customizer) {
+        JsonProperties properties = new JsonProperties();
+        properties.getEnvelopeSerializer().setEnabled(envelopeSerializer);
+        ObjectMapper mapper = new CommonConfig().objectMapper(properties);
+        customizer.accept(mapper);
+        return mapper;
+    }
+
+    abstract static class RenamedPath {
+        @JsonProperty("uri")
+        abstract String getPath();
+    }
+}
@@ -0,0 +1,56 @@
+package com.lyhorng.common.response;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.lyhorng.common.util.JsonUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StreamingApiResponseTest {
+
+    private final ObjectMapper mapper = JsonUtils.getObjectMapper();
+
+    @Test
+    void writesTheElementsAsTheDataArray() throws Exception {
+        JsonNode body = mapper.readTree(write(StreamingApiResponse.list(Stream.of("a", "b", "c"))));
+
+        assertTrue(body.get("success").asBoolean());
+        assertEquals(List.of("a", "b", "c"), mapper.convertValue(body.get("data"), List.class));
+        assertTrue(body.has("timestamp"));
+    }
+
+    @Test
+    void leavesTheBodyIncompleteWhenTheStreamFails() {
+        Stream<String> failing = Stream.of("a", "b", "c").map(element -> {
+            if (element.equals("c")) {
+                throw new IllegalStateException("read failed");
+            }
+            return element;
+        });
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertThrows(IllegalStateException.class, () -> StreamingApiResponse.list(failing).getBody().writeTo(out));
+
+        String body = out.toString(StandardCharsets.UTF_8);
+        assertTrue(body.startsWith("{\"success\":true"), body);
+        assertThrows(JsonProcessingException.class, () -> mapper.readTree(body));
+    }
+
+    private static String write(ResponseEntity<StreamingResponseBody> response) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}